@@ -0,0 +1,59 @@
+package org.example.lookup;
+
+import org.example.dto.PostcodeDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * De postcode-filter achter de lookup-endpoints: het prefix-bereik, de eerste pagina en het batchgewijs
+ * oplossen van codes, van een lege tot een volledige postcode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostcodeLookupBenchmark {
+
+    @Param({"", "8", "85", "8500"})
+    public String prefix;
+
+    private PostcodeLookupService postcodes;
+    private Set<String> codes;
+
+    @Setup
+    public void setUp() {
+        postcodes = new PostcodeLookupService();
+        codes = Set.of("8500", "9000", "1000", "0000");
+    }
+
+    @Benchmark
+    public List<PostcodeDto> findByPrefix() {
+        return postcodes.findByPrefix(prefix);
+    }
+
+    @Benchmark
+    public LookupPage<PostcodeDto> firstPage() {
+        return postcodes.find(prefix, null, PostcodeLookupService.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public Map<String, LookupProvider.Reference> resolve() {
+        return postcodes.resolve(codes);
+    }
+}
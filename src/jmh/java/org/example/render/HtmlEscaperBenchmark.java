@@ -0,0 +1,60 @@
+package org.example.render;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergelijkt {@link HtmlEscaper} met de vroegere escape (vijf geketende {@code String.replace} calls)
+ * op labels zonder en met te escapen tekens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlEscaperBenchmark {
+
+    @Param({"clean", "dirty"})
+    public String input;
+
+    private String value;
+    private StringBuilder out;
+
+    @Setup
+    public void setUp() {
+        value = "clean".equals(input)
+                ? "Gemeente Sint-Martens-Latem, deelgemeente Deurle"
+                : "Gemeente \"Sint-Martens-Latem\" & <Deurle> 'oost'";
+        out = new StringBuilder(256);
+    }
+
+    @Benchmark
+    public String legacyReplaceChain() {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#39;");
+    }
+
+    @Benchmark
+    public String escapeAttribute() {
+        return HtmlEscaper.escapeAttribute(value);
+    }
+
+    @Benchmark
+    public StringBuilder appendAttribute() {
+        out.setLength(0);
+        HtmlEscaper.appendAttribute(out, value);
+        return out;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.render;
+
+import org.example.screen.GeneratedScreen;
+import org.example.ui.form.Form;
+import org.example.ui.form.FormBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Volledige pagina via {@link ThymeleafRenderer#render} (template-pad) tegenover de simple-HTML
+ * fallback met hetzelfde render plan, per formuliergrootte en aantal opties per keuzelijst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenRenderBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int fields;
+
+    @Param({"5", "50"})
+    public int options;
+
+    private ThymeleafRenderer renderer;
+    private GeneratedScreen screen;
+    private Form form;
+    private RenderPlan plan;
+
+    @Setup
+    public void setUp() {
+        renderer = new ThymeleafRenderer();
+        screen = GeneratedScreen.of(fields, options);
+        form = screen.createForm(new FormBuilder(), screen.getDto()).freeze();
+        plan = RenderPlanCompiler.compile(form, new IconRegistry());
+    }
+
+    @Benchmark
+    public String template() {
+        return renderer.render(screen);
+    }
+
+    @Benchmark
+    public StringWriter simpleHtml() throws IOException {
+        StringWriter out = new StringWriter(8192);
+        renderer.renderSimpleHtml(screen.getTitle(), form, screen.getDto(), null, plan, out);
+        return out;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.screen;
+
+import org.example.dto.BaseDto;
+import org.example.ui.AbstractScreen;
+import org.example.ui.field.DateField;
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldSchema;
+import org.example.ui.field.NumberField;
+import org.example.ui.field.SelectField;
+import org.example.ui.field.TextField;
+import org.example.ui.form.Form;
+import org.example.ui.form.FormBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scherm met een instelbaar aantal velden voor de benchmarks. De velden wisselen af tussen tekst,
+ * getal, datum en keuzelijst (met {@code optionCount} opties) en staan per drie op een rij; elk veld
+ * heeft een waarde zodat ook de value-slots van het render plan gevuld worden.
+ */
+public class GeneratedScreen extends AbstractScreen<GeneratedScreen.GeneratedDto> {
+
+    private final Field[] fields;
+
+    private GeneratedScreen(Field[] fields, GeneratedDto dto) {
+        super("Benchmark scherm", dto);
+        this.fields = fields;
+    }
+
+    public static GeneratedScreen of(int fieldCount, int optionCount) {
+        List<SelectField.Option> options = new ArrayList<>(optionCount);
+        for (int i = 0; i < optionCount; i++) {
+            options.add(new SelectField.Option("o" + i, "Optie " + i));
+        }
+        Field[] fields = new Field[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = switch (i % 4) {
+                case 0 -> new TextField("tekst" + i, "Tekst " + i).maxLength(50).icon("user");
+                case 1 -> new NumberField("getal" + i, "Getal " + i, 0, 1000).icon("hash");
+                case 2 -> new DateField("datum" + i, "Datum " + i).icon("calendar");
+                default -> new SelectField("keuze" + i, "Keuze " + i).options(options);
+            };
+        }
+        GeneratedDto dto = new GeneratedDto(FieldSchema.of(fields));
+        for (int i = 0; i < fieldCount; i++) {
+            switch (fields[i]) {
+                case TextField text -> text.setValue(dto, "Waarde \"" + i + "\" & co");
+                case NumberField number -> number.setValue(dto, i);
+                case DateField date -> date.setValue(dto, "2024-01-01");
+                case SelectField select -> select.setSelectedId(dto, optionCount > 0 ? "o" + (i % optionCount) : null);
+                default -> { }
+            }
+        }
+        return new GeneratedScreen(fields, dto);
+    }
+
+    @Override
+    public Form createForm(FormBuilder formBuilder, GeneratedDto dto) {
+        Form form = formBuilder.create(3);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0 && i % 3 == 0) formBuilder.newLine();
+            formBuilder.add(fields[i]);
+        }
+        return form;
+    }
+
+    public static class GeneratedDto extends BaseDto {
+        GeneratedDto(FieldSchema schema) {
+            super(schema);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.screen;
+
+import org.example.dto.PersoonDto;
+import org.example.render.ThymeleafRenderer;
+import org.example.ui.form.Form;
+import org.example.ui.form.FormBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PersoonScreen#createForm} en de volledige pagina van het echte persoon-scherm, als referentie
+ * naast de gegenereerde formulieren van de andere benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersoonScreenBenchmark {
+
+    private ThymeleafRenderer renderer;
+    private PersoonScreen screen;
+
+    @Setup
+    public void setUp() {
+        renderer = new ThymeleafRenderer();
+        screen = new PersoonScreen(new PersoonDto());
+    }
+
+    @Benchmark
+    public Form createForm() {
+        return screen.createForm(new FormBuilder(), screen.getDto());
+    }
+
+    @Benchmark
+    public String render() {
+        return renderer.render(new PersoonScreen(new PersoonDto()));
+    }
+}
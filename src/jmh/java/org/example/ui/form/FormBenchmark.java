@@ -0,0 +1,74 @@
+package org.example.ui.form;
+
+import org.example.screen.GeneratedScreen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opbouwen van een formulier en het opvragen van {@link Form#getFields()} en {@link Form#getRows()}
+ * op een formulier in opbouw tegenover een bevroren snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int fields;
+
+    private GeneratedScreen screen;
+    private Form mutable;
+    private Form frozen;
+
+    @Setup
+    public void setUp() {
+        screen = GeneratedScreen.of(fields, 5);
+        mutable = screen.createForm(new FormBuilder(), screen.getDto());
+        frozen = mutable.freeze();
+    }
+
+    @Benchmark
+    public Form createForm() {
+        return screen.createForm(new FormBuilder(), screen.getDto());
+    }
+
+    @Benchmark
+    public Form createFrozenForm() {
+        return screen.createForm(new FormBuilder(), screen.getDto()).freeze();
+    }
+
+    @Benchmark
+    public List<?> getFields() {
+        return mutable.getFields();
+    }
+
+    @Benchmark
+    public List<?> getRows() {
+        return mutable.getRows();
+    }
+
+    @Benchmark
+    public List<?> getFieldsFrozen() {
+        return frozen.getFields();
+    }
+
+    @Benchmark
+    public List<?> getRowsFrozen() {
+        return frozen.getRows();
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.render.StaticAssets;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Serveert de gefingerprinte en voorgecomprimeerde bestanden van {@link StaticAssets}, immutable gecachet.
+ */
+@RestController
+public class AssetController {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final Pattern Q_ZERO = Pattern.compile("q=0(\\.0*)?");
+
+    private final StaticAssets assets;
+
+    public AssetController(StaticAssets assets) {
+        this.assets = assets;
+    }
+
+    @GetMapping(StaticAssets.PREFIX + "**")
+    public ResponseEntity<byte[]> asset(HttpServletRequest request,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        StaticAssets.Asset asset = assets.find(request.getRequestURI().substring(request.getContextPath().length()));
+        if (asset == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String coding = asset.getBrotli() != null && accepts(acceptEncoding, "br") ? "br"
+                : asset.getGzip() != null && accepts(acceptEncoding, "gzip") ? "gzip"
+                : null;
+        // a strong ETag has to differ per content coding; the content itself is the same for all of them
+        String etag = etag(asset, coding);
+        if (HttpCaching.etagMatches(ifNoneMatch, etag(asset, null), etag(asset, "gzip"), etag(asset, "br"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(IMMUTABLE)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(asset.getPath()).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .cacheControl(IMMUTABLE)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (coding == null) {
+            return response.body(asset.getContent());
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, coding)
+                .body(coding.equals("br") ? asset.getBrotli() : asset.getGzip());
+    }
+
+    static String etag(StaticAssets.Asset asset, String coding) {
+        return '"' + asset.getHash() + (coding == null ? "" : coding.equals("br") ? "-br" : "-gz") + '"';
+    }
+
+    // true when the coding is listed without an explicit q=0
+    static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase(coding)) continue;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].replace(" ", "");
+                if (Q_ZERO.matcher(param).matches()) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+}
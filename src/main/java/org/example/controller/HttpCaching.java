@@ -0,0 +1,25 @@
+package org.example.controller;
+
+/**
+ * Kleine hulpfuncties voor conditionele requests, gedeeld door de controllers die zelf hun
+ * ETag en Cache-Control bepalen.
+ */
+final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    // If-None-Match may list several tags, weak ones (W/"...") included, or be a wildcard; true when any of etags is listed
+    static boolean etagMatches(String ifNoneMatch, String... etags) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*")) return true;
+            for (String etag : etags) {
+                if (tag.equals(etag)) return true;
+            }
+        }
+        return false;
+    }
+}
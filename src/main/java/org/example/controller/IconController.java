@@ -0,0 +1,40 @@
+package org.example.controller;
+
+import org.example.render.IconRegistry;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Serveert de SVG sprite van het {@link IconRegistry}. Een request met de actuele versie in de URL
+ * mag een jaar gecachet worden; zonder (of met een verouderde) versie moet de browser revalideren.
+ */
+@RestController
+public class IconController {
+
+    private static final MediaType SVG = MediaType.valueOf("image/svg+xml");
+
+    private final IconRegistry icons;
+
+    public IconController(IconRegistry icons) {
+        this.icons = icons;
+    }
+
+    @GetMapping(IconRegistry.SPRITE_PATH)
+    public ResponseEntity<String> sprite(@RequestParam(value = "v", required = false) String v) {
+        String version = icons.getVersion();
+        CacheControl cacheControl = version.equals(v)
+                ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+                : CacheControl.noCache();
+        return ResponseEntity.ok()
+                .contentType(SVG)
+                .cacheControl(cacheControl)
+                .eTag(version)
+                .body(icons.getSprite());
+    }
+}
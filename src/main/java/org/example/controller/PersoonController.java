@@ -1,90 +1,195 @@
 // java
 package org.example.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.MediaType;
 import org.example.screen.PersoonScreen;
 import org.example.render.ThymeleafRenderer;
+import org.example.dto.DtoBinder;
+import org.example.dto.DtoValidator;
 import org.example.dto.PersoonDto;
 import org.example.dto.PostcodeDto;
+import org.example.lookup.LookupMetrics;
+import org.example.lookup.LookupPage;
+import org.example.lookup.LookupProperties;
+import org.example.lookup.LookupResultCache;
+import org.example.lookup.LookupProviderRegistry;
+import org.example.lookup.PostcodeLookupService;
+import org.example.lookup.ReferenceResolver;
+import org.example.render.RenderPlan;
+import org.example.render.RenderTrace;
+import org.example.ui.field.FieldErrors;
 import org.springframework.ui.Model;
-import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Controller
 @RequestMapping("/persoon")
 public class PersoonController {
 
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String HX_REQUEST_HEADER = "HX-Request";
+    static final String HX_TRIGGER_HEADER = "HX-Trigger";
+    // event raised on the page by htmx after a valid submit
+    static final String SAVED_EVENT = "persoon-saved";
+
+    private static final String SAVED_STATUS =
+            "<p id=\"form-status\" class=\"form-status\" role=\"status\" hx-swap-oob=\"true\">Gegevens opgeslagen</p>\n";
+    private static final String EMPTY_STATUS =
+            "<p id=\"form-status\" class=\"form-status\" role=\"status\" hx-swap-oob=\"true\"></p>\n";
+    private static final MediaType HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+    // pages may show user-specific values: only the browser keeps them, and always revalidates
+    private static final String SCREEN_CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
     private final ThymeleafRenderer renderer;
+    private final PostcodeLookupService postcodes;
+    private final LookupResultCache lookups;
+    private final LookupMetrics lookupMetrics;
+    private final ObjectMapper objectMapper;
+    private final CacheControl lookupCacheControl;
 
     // Primary constructor for DI
-    public PersoonController(ThymeleafRenderer renderer) {
+    @Autowired
+    public PersoonController(ThymeleafRenderer renderer, PostcodeLookupService postcodes, LookupResultCache lookups,
+                             LookupMetrics lookupMetrics, ObjectMapper objectMapper, LookupProperties lookupProperties) {
         this.renderer = renderer;
+        this.postcodes = postcodes;
+        this.lookups = lookups;
+        this.lookupMetrics = lookupMetrics;
+        this.objectMapper = objectMapper;
+        this.lookupCacheControl = CacheControl.maxAge(lookupProperties.getHttpMaxAge()).cachePublic();
     }
 
     // Backwards-compatible no-arg constructor for tests that instantiate directly
     @Deprecated
     public PersoonController() {
-        this(new ThymeleafRenderer());
+        this(new PostcodeLookupService(), new LookupProperties());
+    }
+
+    private PersoonController(PostcodeLookupService postcodes, LookupProperties lookupProperties) {
+        this(ThymeleafRenderer.builder()
+                        .references(new ReferenceResolver(new LookupProviderRegistry(List.of(postcodes)), lookupProperties))
+                        .build(),
+                postcodes, new LookupResultCache(lookupProperties), new LookupMetrics(), new ObjectMapper(), lookupProperties);
     }
 
+    // Streams the page straight into the response instead of materializing it as a String first. A page
+    // the browser already has is answered with 304 before any template work.
     @GetMapping(produces = MediaType.TEXT_HTML_VALUE)
-    public ResponseEntity<String> getPersoon() {
+    public void getPersoon(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                           HttpServletResponse response) throws IOException {
+        RenderTrace trace = renderer.newTrace();
+        RenderTrace.Phase phase = trace.begin(RenderTrace.DTO, PersoonScreen.class);
         PersoonDto dto = new PersoonDto();
+        phase.end(dto.getSchema().getFields().size(), 0);
         PersoonScreen screen = new PersoonScreen(dto);
-        String html = renderer.render(screen);
-        return ResponseEntity.ok()
-                .contentType(MediaType.TEXT_HTML)
-                .body(html);
+
+        String etag = renderer.etag(screen, trace);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, SCREEN_CACHE_CONTROL);
+            if (HttpCaching.etagMatches(ifNoneMatch, etag)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+        }
+        renderPersoon(screen, null, trace, response);
+    }
+
+    // Binds and validates the submitted form. A plain submit gets the whole screen back with the errors
+    // next to the fields; an htmx submit only gets the fields that have an error now or had one before,
+    // plus the form status: a confirmation and a persoon-saved event when the form is valid.
+    @PostMapping(consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE, produces = MediaType.TEXT_HTML_VALUE)
+    public void postPersoon(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FieldErrors errors = new FieldErrors();
+        PersoonDto dto = DtoBinder.of(PersoonDto.class).bind(request::getParameter, errors);
+        DtoValidator.of(PersoonDto.class).validate(dto, errors);
+
+        if ("true".equals(request.getHeader(HX_REQUEST_HEADER))) {
+            Set<String> fields = new LinkedHashSet<>();
+            for (int i = 0; i < errors.size(); i++) {
+                fields.add(errors.getField(i).getName());
+            }
+            String[] previouslyInvalid = request.getParameterValues(RenderPlan.INVALID_PARAMETER);
+            if (previouslyInvalid != null) fields.addAll(Arrays.asList(previouslyInvalid));
+            response.setContentType(MediaType.TEXT_HTML_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            if (errors.isEmpty()) response.setHeader(HX_TRIGGER_HEADER, SAVED_EVENT);
+            renderer.renderFields(new PersoonScreen(dto), fields, errors, response.getWriter());
+            response.getWriter().write(errors.isEmpty() ? SAVED_STATUS : EMPTY_STATUS);
+            return;
+        }
+        if (!errors.isEmpty()) {
+            response.setStatus(HttpStatus.UNPROCESSABLE_ENTITY.value());
+        }
+        renderPersoon(new PersoonScreen(dto), errors, renderer.newTrace(), response);
+    }
+
+    // With a timed trace the page is buffered, a Server-Timing header can't follow a streamed body
+    private void renderPersoon(PersoonScreen screen, FieldErrors errors, RenderTrace trace, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(MediaType.TEXT_HTML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (!trace.isTimed()) {
+            renderer.render(screen, errors, trace, response.getWriter());
+            return;
+        }
+        StringWriter page = new StringWriter(8192);
+        renderer.render(screen, errors, trace, page);
+        response.setHeader(RenderTrace.HEADER, trace.toHeaderValue());
+        response.getWriter().write(page.toString());
     }
 
-    // Simpele demo-lookup voor postcodes. In echte app zou dit service/DB call zijn.
+    // Postcode-lookup op prefix, beantwoord vanuit de geïndexeerde dataset. De body blijft een JSON-array;
+    // het totaal en de cursor voor de volgende pagina staan in de X-Total-Count / X-Next-Cursor headers.
     @GetMapping(value = "/findPostCodeById", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<PostcodeDto>> findPostCodeById(@RequestParam("code") String code) {
-        var results = new ArrayList<PostcodeDto>();
-        // dummy data
-        addResult(results, "8500", "Kortrijk");
-        addResult(results, "8501", "Bissegem");
-        addResult(results, "1000", "Brussel");
-
-        // filter simpel op prefix match
-        var c = (code == null) ? "" : code.trim();
-        var filtered = results.stream()
-                .filter(r -> !StringUtils.hasText(c) || r.getCode().startsWith(c))
-                .toList();
-        if (filtered.isEmpty()) {
-            // als geen match, en code exact bestaat, retourneer één item met die code als naam onbepaald
-            filtered = List.of(new PostcodeDto(c, c, ""));
+    public ResponseEntity<byte[]> findPostCodeById(@RequestParam("code") String code,
+                                                   @RequestParam(name = "after", required = false) String after,
+                                                   @RequestParam(name = "limit", required = false) Integer limit,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long start = System.nanoTime();
+        String etag = postcodeEtag("json");
+        if (HttpCaching.etagMatches(ifNoneMatch, etag)) {
+            return notModified(etag);
         }
-        return ResponseEntity.ok(filtered);
+        var key = new LookupResultCache.Key("postcodes.json", trim(code), trimToNull(after),
+                PostcodeLookupService.effectiveLimit(limit), null);
+        return lookupResponse(key, lookups.get(key, this::serializePostcodes), MediaType.APPLICATION_JSON, etag, start);
     }
 
-    // htmx: return a fragment with <li class="lookup-item"> entries
+    // htmx: return a fragment with <li class="lookup-item"> entries, plus a "load more" item when the page is not the last one
     @GetMapping(value = "/lookup/postcodes", produces = MediaType.TEXT_HTML_VALUE)
-    public String lookupPostcodes(@RequestParam(name = "code", required = false) String code,
-                                  @RequestParam(name = "ref", required = false) String ref,
-                                  Model model) {
-        // Reuse the same filtering logic as JSON endpoint
-        List<PostcodeDto> results = new ArrayList<>();
-        addResult(results, "8500", "Kortrijk");
-        addResult(results, "8501", "Bissegem");
-        addResult(results, "1000", "Brussel");
-
-        var c = (code == null) ? "" : code.trim();
-        var filtered = results.stream()
-                .filter(r -> !StringUtils.hasText(c) || r.getCode().startsWith(c))
-                .toList();
-        if (filtered.isEmpty()) {
-            filtered = List.of(new PostcodeDto(c, c, ""));
+    public ResponseEntity<byte[]> lookupPostcodes(@RequestParam(name = "code", required = false) String code,
+                                                  @RequestParam(name = "ref", required = false) String ref,
+                                                  @RequestParam(name = "after", required = false) String after,
+                                                  @RequestParam(name = "limit", required = false) Integer limit,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long start = System.nanoTime();
+        String etag = postcodeEtag("html");
+        if (HttpCaching.etagMatches(ifNoneMatch, etag)) {
+            return notModified(etag);
         }
-        model.addAttribute("list", filtered);
-        model.addAttribute("ref", ref == null ? "postcode" : ref);
-        return "fragments/postcodes :: items";
+        var key = new LookupResultCache.Key("postcodes.html", trim(code), trimToNull(after),
+                PostcodeLookupService.effectiveLimit(limit), ref == null ? "postcode" : ref);
+        return lookupResponse(key, lookups.get(key, this::renderPostcodeItems), HTML_UTF8, etag, start);
     }
 
     // Optional selection endpoint (reserved for future OOB swap usage)
@@ -101,7 +206,70 @@ public class PersoonController {
         return "fragments/postcodes :: selectionOob";
     }
 
-    private static void addResult(List<PostcodeDto> list, String code, String name) {
-        list.add(new PostcodeDto(code, code, name));
+    private LookupPage<PostcodeDto> findPostcodes(LookupResultCache.Key key) {
+        var c = key.prefix();
+        var page = postcodes.find(c, key.after(), key.limit());
+        if (page.getTotal() == 0) {
+            // als geen match, retourneer één item met die code als naam onbepaald
+            return new LookupPage<>(List.of(new PostcodeDto(c, c, "")), 1, null);
+        }
+        return page;
+    }
+
+    private LookupResultCache.Entry serializePostcodes(LookupResultCache.Key key) {
+        LookupPage<PostcodeDto> page = findPostcodes(key);
+        try {
+            return new LookupResultCache.Entry(objectMapper.writeValueAsBytes(page.getItems()), page.getTotal(), page.getNextCursor());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize postcode lookup", e);
+        }
+    }
+
+    private LookupResultCache.Entry renderPostcodeItems(LookupResultCache.Key key) {
+        LookupPage<PostcodeDto> page = findPostcodes(key);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("list", page.getItems());
+        variables.put("ref", key.ref());
+        variables.put("moreUrl", page.hasMore()
+                ? UriComponentsBuilder.fromPath("/persoon/lookup/postcodes")
+                    .queryParam("code", key.prefix())
+                    .queryParam("ref", key.ref())
+                    .queryParam("after", page.getNextCursor())
+                    .queryParam("limit", key.limit())
+                    .encode().toUriString()
+                : null);
+        String html = renderer.renderFragment("fragments/postcodes", "items", variables);
+        return new LookupResultCache.Entry(html.getBytes(StandardCharsets.UTF_8), page.getTotal(), page.getNextCursor());
+    }
+
+    // strong ETag: identical queries give identical bytes for as long as the dataset version is the same
+    private String postcodeEtag(String representation) {
+        return '"' + postcodes.getVersion() + '-' + representation + '"';
+    }
+
+    private ResponseEntity<byte[]> lookupResponse(LookupResultCache.Key key, LookupResultCache.Entry entry, MediaType type,
+                                                  String etag, long startNanos) {
+        lookupMetrics.record(key.lookup(), startNanos, entry.total());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(type)
+                .cacheControl(lookupCacheControl)
+                .eTag(etag)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(entry.total()));
+        if (entry.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, entry.nextCursor());
+        }
+        return response.body(entry.body());
+    }
+
+    private ResponseEntity<byte[]> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(lookupCacheControl).build();
+    }
+
+    private static String trim(String s) {
+        return s == null ? "" : s.trim();
+    }
+
+    private static String trimToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
     }
 }
\ No newline at end of file
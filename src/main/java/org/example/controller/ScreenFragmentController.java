@@ -0,0 +1,101 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.dto.BaseDto;
+import org.example.dto.DtoBinder;
+import org.example.dto.DtoValidator;
+import org.example.render.ThymeleafRenderer;
+import org.example.ui.AbstractScreen;
+import org.example.ui.ScreenRegistry;
+import org.example.ui.field.FieldErrors;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Fragment-endpoints voor elk screen uit de {@link ScreenRegistry}: velden, een rij of een sectie met hx-swap-oob.
+ */
+@Controller
+@RequestMapping("/screens/{screen}")
+public class ScreenFragmentController {
+
+    private static final MediaType HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    private final ThymeleafRenderer renderer;
+    private final ScreenRegistry screens;
+
+    public ScreenFragmentController(ThymeleafRenderer renderer, ScreenRegistry screens) {
+        this.renderer = renderer;
+        this.screens = screens;
+    }
+
+    @RequestMapping(value = "/fields/{field}", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<String> field(@PathVariable("screen") String screen, @PathVariable("field") String field,
+                                        HttpServletRequest request) throws IOException {
+        return fields(screen, List.of(field), request);
+    }
+
+    @RequestMapping(value = "/fields", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<String> fields(@PathVariable("screen") String screen,
+                                         @RequestParam("name") List<String> names,
+                                         HttpServletRequest request) throws IOException {
+        if (!screens.contains(screen)) return ResponseEntity.notFound().build();
+        AbstractScreen<?> instance = screens.create(screen);
+        FieldErrors errors = bindSubmission(instance, request);
+        StringWriter out = new StringWriter(1024);
+        if (renderer.renderFields(instance, names, errors, out) == 0) return ResponseEntity.notFound().build();
+        return fragment(out);
+    }
+
+    @RequestMapping(value = "/rows/{row}", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<String> row(@PathVariable("screen") String screen, @PathVariable("row") int row,
+                                      HttpServletRequest request) throws IOException {
+        if (!screens.contains(screen)) return ResponseEntity.notFound().build();
+        AbstractScreen<?> instance = screens.create(screen);
+        FieldErrors errors = bindSubmission(instance, request);
+        StringWriter out = new StringWriter(2048);
+        if (!renderer.renderRow(instance, row, errors, out)) return ResponseEntity.notFound().build();
+        return fragment(out);
+    }
+
+    @RequestMapping(value = "/sections/{section}", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<String> section(@PathVariable("screen") String screen,
+                                          @PathVariable("section") String section,
+                                          HttpServletRequest request) throws IOException {
+        if (!screens.contains(screen)) return ResponseEntity.notFound().build();
+        AbstractScreen<?> instance = screens.create(screen);
+        FieldErrors errors = bindSubmission(instance, request);
+        StringWriter out = new StringWriter(8192);
+        if (!renderer.renderSection(instance, section, errors, out)) return ResponseEntity.notFound().build();
+        return fragment(out);
+    }
+
+    // a POST carries the current form values: bind them onto the screen's dto and validate
+    private static FieldErrors bindSubmission(AbstractScreen<?> screen, HttpServletRequest request) {
+        FieldErrors errors = new FieldErrors();
+        if (HttpMethod.POST.matches(request.getMethod()) && screen.getDto() instanceof BaseDto dto) {
+            bind(dto, request, errors);
+            DtoValidator.of(dto.getClass()).validate(dto, errors);
+        }
+        return errors;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends BaseDto> void bind(T dto, HttpServletRequest request, FieldErrors errors) {
+        DtoBinder.of((Class<T>) dto.getClass()).bind(dto, request::getParameter, errors);
+    }
+
+    private static ResponseEntity<String> fragment(StringWriter out) {
+        return ResponseEntity.ok().contentType(HTML_UTF8).body(out.toString());
+    }
+}
@@ -1,6 +1,31 @@
 package org.example.dto;
 
-public class BaseDto {
-    // marker for now; can add reflection binding helpers later
-}
+import org.example.ui.field.FieldSchema;
+import org.example.ui.field.FieldValues;
+
+/**
+ * Basis voor DTO's: de velden staan in een gedeeld {@link FieldSchema}, een instantie bewaart enkel de waarden.
+ */
+public class BaseDto implements FieldValues {
+    private final FieldSchema schema;
+    private final Object[] values;
+
+    protected BaseDto(FieldSchema schema) {
+        this.schema = schema;
+        this.values = schema.newSlots();
+    }
 
+    public FieldSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object get(int slot) {
+        return values[slot];
+    }
+
+    @Override
+    public void set(int slot, Object value) {
+        values[slot] = value;
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.dto;
+
+import org.example.ui.field.DateField;
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldErrors;
+import org.example.ui.field.FieldSchema;
+import org.example.ui.field.NumberField;
+import org.example.ui.field.ReferenceField;
+import org.example.ui.field.SelectField;
+import org.example.ui.field.TextField;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bindt de parameters van een form-submit op een DTO; per DTO-klasse één keer opgebouwd en gedeeld.
+ */
+public final class DtoBinder<T extends BaseDto> {
+
+    private static final ClassValue<DtoBinder<?>> BINDERS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected DtoBinder<?> computeValue(Class<?> type) {
+            return new DtoBinder(type.asSubclass(BaseDto.class));
+        }
+    };
+
+    static final String INVALID_NUMBER = "Geen geldig getal";
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final FieldSchema schema;
+    private final Binding[] bindings;
+
+    private DtoBinder(Class<T> type) {
+        this.type = type;
+        try {
+            this.constructor = MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(BaseDto.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(type.getName() + " needs a public no-arg constructor to be bound", e);
+        }
+        this.schema = newInstance().getSchema();
+        List<Field> fields = schema.getFields();
+        this.bindings = new Binding[fields.size()];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = bindingFor(fields.get(i));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends BaseDto> DtoBinder<T> of(Class<T> type) {
+        return (DtoBinder<T>) BINDERS.get(type);
+    }
+
+    /**
+     * @param params looks up one request parameter by name, e.g. {@code request::getParameter}
+     * @param errors receives conversion errors
+     * @return a new DTO holding the submitted values
+     */
+    public T bind(Function<String, String> params, FieldErrors errors) {
+        return bind(newInstance(), params, errors);
+    }
+
+    // binds onto an existing DTO, e.g. the one a screen was created with; returns that DTO
+    public T bind(T dto, Function<String, String> params, FieldErrors errors) {
+        for (Binding binding : bindings) {
+            binding.bind(dto, params, errors);
+        }
+        return dto;
+    }
+
+    // for API and bulk submitters that already hold the values in a map
+    public T bind(Map<String, String> params, FieldErrors errors) {
+        return bind(params::get, errors);
+    }
+
+    public FieldSchema getSchema() {
+        return schema;
+    }
+
+    private T newInstance() {
+        try {
+            return type.cast((BaseDto) constructor.invokeExact());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not create " + type.getName(), t);
+        }
+    }
+
+    private static Binding bindingFor(Field field) {
+        String name = field.getName();
+        if (field instanceof TextField tf) {
+            return (dto, params, errors) -> {
+                String raw = params.apply(name);
+                if (raw != null) tf.setValue(dto, emptyToNull(raw));
+            };
+        }
+        if (field instanceof DateField df) {
+            return (dto, params, errors) -> {
+                String raw = params.apply(name);
+                if (raw != null) df.setValue(dto, emptyToNull(raw));
+            };
+        }
+        if (field instanceof SelectField sf) {
+            return (dto, params, errors) -> {
+                String raw = params.apply(name);
+                if (raw != null) sf.setSelectedId(dto, emptyToNull(raw));
+            };
+        }
+        if (field instanceof NumberField nf) {
+            return (dto, params, errors) -> {
+                String raw = params.apply(name);
+                if (raw == null) return;
+                String trimmed = raw.trim();
+                if (trimmed.isEmpty()) {
+                    nf.setValue(dto, null);
+                    return;
+                }
+                try {
+                    nf.setValue(dto, Integer.valueOf(trimmed));
+                } catch (NumberFormatException e) {
+                    errors.add(nf, INVALID_NUMBER);
+                }
+            };
+        }
+        if (field instanceof ReferenceField rf) {
+            String codeName = name + "_code";
+            String idCodeName = name + "_idcode";
+            return (dto, params, errors) -> {
+                String code = params.apply(codeName);
+                String id = params.apply(name);
+                if (code != null) {
+                    rf.setCode(dto, emptyToNull(code));
+                    // an id picked for another code is stale: drop it so the resolver looks it up again
+                    if (id != null && !code.trim().equals(nullToEmpty(params.apply(idCodeName)).trim())) id = "";
+                }
+                if (id != null) rf.setIdValue(dto, emptyToNull(id));
+            };
+        }
+        throw new IllegalArgumentException("No binding for field type " + field.getClass().getName());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    @FunctionalInterface
+    private interface Binding {
+        void bind(BaseDto dto, Function<String, String> params, FieldErrors errors);
+    }
+}
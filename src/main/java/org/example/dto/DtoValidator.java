@@ -0,0 +1,96 @@
+package org.example.dto;
+
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldErrors;
+import org.example.ui.field.FieldSchema;
+import org.example.ui.field.FieldValues;
+import org.example.ui.field.NumberField;
+import org.example.ui.field.SelectField;
+import org.example.ui.field.TextField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Controleert een DTO tegen de beperkingen van zijn velden; per DTO-klasse één keer opgebouwd en gedeeld.
+ */
+public final class DtoValidator {
+
+    private static final ClassValue<DtoValidator> VALIDATORS = new ClassValue<>() {
+        @Override
+        protected DtoValidator computeValue(Class<?> type) {
+            return new DtoValidator(DtoBinder.of(type.asSubclass(BaseDto.class)).getSchema());
+        }
+    };
+
+    private final FieldValidator[] validators;
+
+    DtoValidator(FieldSchema schema) {
+        List<FieldValidator> compiled = new ArrayList<>();
+        for (Field field : schema.getFields()) {
+            addValidators(field, compiled);
+        }
+        this.validators = compiled.toArray(new FieldValidator[0]);
+    }
+
+    public static DtoValidator of(Class<? extends BaseDto> type) {
+        return VALIDATORS.get(type);
+    }
+
+    /**
+     * Adds an error for every violated constraint.
+     *
+     * @return true when no constraint was violated
+     */
+    public boolean validate(FieldValues values, FieldErrors errors) {
+        int before = errors.size();
+        for (FieldValidator validator : validators) {
+            validator.validate(values, errors);
+        }
+        return errors.size() == before;
+    }
+
+    public int getValidatorCount() {
+        return validators.length;
+    }
+
+    private static void addValidators(Field field, List<FieldValidator> out) {
+        if (field instanceof TextField tf && tf.getMaxLength() != null) {
+            int maxLength = tf.getMaxLength();
+            String message = "Maximaal " + maxLength + " tekens";
+            out.add((values, errors) -> {
+                String value = tf.getValue(values);
+                if (value != null && value.length() > maxLength) errors.add(tf, message);
+            });
+        } else if (field instanceof NumberField nf) {
+            if (nf.getMin() != null) {
+                int min = nf.getMin();
+                String message = "Minimaal " + min;
+                out.add((values, errors) -> {
+                    Integer value = nf.getValue(values);
+                    if (value != null && value < min) errors.add(nf, message);
+                });
+            }
+            if (nf.getMax() != null) {
+                int max = nf.getMax();
+                String message = "Maximaal " + max;
+                out.add((values, errors) -> {
+                    Integer value = nf.getValue(values);
+                    if (value != null && value > max) errors.add(nf, message);
+                });
+            }
+        } else if (field instanceof SelectField sf) {
+            Set<String> ids = Set.copyOf(sf.getOptions().stream().map(SelectField.Option::getId).toList());
+            out.add((values, errors) -> {
+                String selected = sf.getSelectedId(values);
+                if (selected != null && !ids.contains(selected)) errors.add(sf, "Ongeldige keuze");
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldValidator {
+        void validate(FieldValues values, FieldErrors errors);
+    }
+}
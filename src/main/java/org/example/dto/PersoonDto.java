@@ -1,5 +1,7 @@
 package org.example.dto;
 
+import org.example.lookup.PostcodeLookupService;
+import org.example.ui.field.FieldSchema;
 import org.example.ui.field.SelectField;
 import org.example.ui.field.TextField;
 import org.example.ui.field.NumberField;
@@ -7,28 +9,23 @@ import org.example.ui.field.DateField;
 import org.example.ui.field.ReferenceField;
 
 import java.util.List;
-import java.util.ArrayList;
 
 public class PersoonDto extends BaseDto {
-    public final TextField naam = new TextField("naam", "Naam").maxLength(50);
-    public final TextField voornaam = new TextField("voornaam", "Voornaam").maxLength(50);
-    public final DateField geboorteDatum = new DateField("geboorteDatum", "Geboorte datum");
-    public final NumberField leeftijd = new NumberField("leeftijd", "Leeftijd", 0, 150);
-    public final SelectField geslacht = new SelectField("geslacht", "Geslacht");
-    public final ReferenceField postcode = new ReferenceField("postcode", "Postcode", "8500")
-            .displayName("Kortrijk")
+    // field definitions are shared by every PersoonDto; an instance only holds the values
+    public static final TextField NAAM = new TextField("naam", "Naam").maxLength(50).icon("user");
+    public static final TextField VOORNAAM = new TextField("voornaam", "Voornaam").maxLength(50).icon("user");
+    public static final DateField GEBOORTE_DATUM = new DateField("geboorteDatum", "Geboorte datum").icon("calendar");
+    public static final NumberField LEEFTIJD = new NumberField("leeftijd", "Leeftijd", 0, 150).icon("hash");
+    public static final SelectField GESLACHT = new SelectField("geslacht", "Geslacht").options(List.of(
+            new SelectField.Option("M", "Man"),
+            new SelectField.Option("V", "Vrouw")));
+    public static final ReferenceField POSTCODE = new ReferenceField("postcode", "Postcode", "8500")
+            .lookup(PostcodeLookupService.TYPE)
             .lookupUrl("/persoon/findPostCodeById");
 
-    public PersoonDto() {
-        List<SelectField.Option> opts = new ArrayList<>();
-        opts.add(new SelectField.Option("M", "Man"));
-        opts.add(new SelectField.Option("V", "Vrouw"));
-        this.geslacht.options(opts);
+    public static final FieldSchema SCHEMA = FieldSchema.of(NAAM, VOORNAAM, GEBOORTE_DATUM, LEEFTIJD, GESLACHT, POSTCODE);
 
-        // set icons after construction to preserve concrete types for chaining
-        this.naam.icon("user");
-        this.voornaam.icon("user");
-        this.geboorteDatum.icon("calendar");
-        this.leeftijd.icon("hash");
+    public PersoonDto() {
+        super(SCHEMA);
     }
 }
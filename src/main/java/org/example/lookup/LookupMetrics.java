@@ -0,0 +1,56 @@
+package org.example.lookup;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer-metingen van de lookup-endpoints: duur en aantal resultaten per lookup.
+ */
+@Component
+public class LookupMetrics {
+
+    public static final String DURATION = "ui.lookup";
+    public static final String RESULTS = "ui.lookup.results";
+
+    private final MeterRegistry registry;
+    private final Map<String, Meters> lookups = new ConcurrentHashMap<>();
+
+    // without a registry every meter is a no-op, e.g. for controllers created in tests
+    public LookupMetrics() {
+        this(new CompositeMeterRegistry());
+    }
+
+    @Autowired
+    public LookupMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param lookup     the lookup and its representation, as in {@link LookupResultCache.Key#lookup()}
+     * @param startNanos {@link System#nanoTime()} when the request started
+     * @param results    the total number of matches of the query
+     */
+    public void record(String lookup, long startNanos, int results) {
+        Meters meters = lookups.computeIfAbsent(lookup, this::register);
+        meters.duration.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        meters.results.record(results);
+    }
+
+    private Meters register(String lookup) {
+        return new Meters(
+                Timer.builder(DURATION).description("Answering a lookup query").tag("lookup", lookup).register(registry),
+                DistributionSummary.builder(RESULTS).description("Matches per lookup query").baseUnit("results")
+                        .tag("lookup", lookup).register(registry));
+    }
+
+    private record Meters(Timer duration, DistributionSummary results) {
+    }
+}
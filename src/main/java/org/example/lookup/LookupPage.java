@@ -0,0 +1,34 @@
+package org.example.lookup;
+
+import java.util.List;
+
+/**
+ * Eén pagina van een lookup-resultaat; {@code nextCursor} is null op de laatste pagina.
+ */
+public final class LookupPage<T> {
+    private final List<T> items;
+    private final int total;
+    private final String nextCursor;
+
+    public LookupPage(List<T> items, int total, String nextCursor) {
+        this.items = items;
+        this.total = total;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.lookup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Instellingen voor de lookup-endpoints en reference-velden ({@code ui.lookup.*}).
+ */
+@ConfigurationProperties("ui.lookup")
+public class LookupProperties {
+    private DataSize cacheSize = DataSize.ofMegabytes(16);
+    private Duration httpMaxAge = Duration.ofMinutes(10);
+    private Duration resolveTimeout = Duration.ofSeconds(2);
+
+    public DataSize getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(DataSize cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public Duration getHttpMaxAge() {
+        return httpMaxAge;
+    }
+
+    public void setHttpMaxAge(Duration httpMaxAge) {
+        this.httpMaxAge = httpMaxAge;
+    }
+
+    public Duration getResolveTimeout() {
+        return resolveTimeout;
+    }
+
+    public void setResolveTimeout(Duration resolveTimeout) {
+        this.resolveTimeout = resolveTimeout;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.lookup;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SPI voor het opzoeken van referenties van één type (postcodes, landen, ...).
+ */
+public interface LookupProvider {
+
+    /** the reference type this provider answers for, e.g. {@code "postcode"} */
+    String getType();
+
+    /**
+     * Resolves all codes of one form in a single batch. Remote providers may be called from several threads.
+     *
+     * @return the resolved references keyed by code; codes without a match are left out
+     */
+    Map<String, Reference> resolve(Set<String> codes);
+
+    // true for in-memory lookups, which are called on the rendering thread instead of a separate one
+    default boolean isLocal() {
+        return false;
+    }
+
+    /** id and display name of a resolved code */
+    record Reference(String id, String name) {
+    }
+}
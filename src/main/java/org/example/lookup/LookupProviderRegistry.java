@@ -0,0 +1,37 @@
+package org.example.lookup;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Alle {@link LookupProvider}s van de applicatie, per reference-type. Een type mag maar door één
+ * provider bediend worden.
+ */
+@Component
+public class LookupProviderRegistry {
+    private final Map<String, LookupProvider> providers = new LinkedHashMap<>();
+
+    public LookupProviderRegistry(List<LookupProvider> providers) {
+        for (LookupProvider provider : providers) {
+            LookupProvider existing = this.providers.putIfAbsent(provider.getType(), provider);
+            if (existing != null) {
+                throw new IllegalArgumentException("Lookup type '" + provider.getType() + "' is provided by both "
+                        + existing.getClass().getName() + " and " + provider.getClass().getName());
+            }
+        }
+    }
+
+    // null when no provider is registered for the type
+    public LookupProvider find(String type) {
+        return type == null ? null : providers.get(type);
+    }
+
+    public Set<String> getTypes() {
+        return Collections.unmodifiableSet(providers.keySet());
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.lookup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * In bytes begrensde server-side cache van geserialiseerde lookup-antwoorden.
+ */
+@Component
+public class LookupResultCache implements MeterBinder {
+
+    public static final String CACHE_NAME = "lookup-results";
+
+    /**
+     * @param lookup the lookup and its representation, e.g. {@code postcodes.json}
+     * @param ref    the reference field the HTML is rendered for, null for JSON
+     */
+    public record Key(String lookup, String prefix, String after, int limit, String ref) {
+    }
+
+    /** serialized body plus the paging metadata that goes into the response headers */
+    public record Entry(byte[] body, int total, String nextCursor) {
+    }
+
+    // rough per-entry overhead of key, record and map node on top of the body bytes
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Cache<Key, Entry> cache;
+
+    public LookupResultCache() {
+        this(new LookupProperties());
+    }
+
+    @Autowired
+    public LookupResultCache(LookupProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getCacheSize().toBytes())
+                .weigher((Key key, Entry entry) -> entry.body().length + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+    }
+
+    public Entry get(Key key, Function<Key, Entry> loader) {
+        return cache.get(key, loader);
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // picked up by Spring Boot for every MeterBinder bean: cache.gets, cache.evictions, cache.size, ...
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.lookup;
+
+import org.example.dto.PostcodeDto;
+import org.example.ui.ContentHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Postcode-lookup op een gesorteerde dataset die bij het opstarten van het classpath ingelezen wordt.
+ */
+@Service
+public class PostcodeLookupService implements LookupProvider {
+    private static final Logger log = LoggerFactory.getLogger(PostcodeLookupService.class);
+
+    public static final String TYPE = "postcode";
+    public static final String DEFAULT_DATASET = "data/postcodes-be.csv";
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final String[] codes;
+    private final List<PostcodeDto> entries;
+    private final String version;
+
+    public PostcodeLookupService() {
+        this(DEFAULT_DATASET);
+    }
+
+    PostcodeLookupService(String resource) {
+        byte[] dataset = read(resource);
+        PostcodeDto[] sorted = parse(resource, new String(dataset, StandardCharsets.UTF_8));
+        this.version = ContentHash.of(dataset);
+        this.codes = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            codes[i] = sorted[i].getCode();
+        }
+        this.entries = Collections.unmodifiableList(Arrays.asList(sorted));
+        log.info("Loaded {} postcode(s) from {} (version {})", sorted.length, resource, version);
+    }
+
+    /**
+     * @param prefix the start of a postcode; null or blank matches every entry
+     * @return the matching entries ordered by code, as a read-only view on the dataset
+     */
+    public List<PostcodeDto> findByPrefix(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return entries;
+        }
+        String p = prefix.trim();
+        int from = lowerBound(p);
+        // every code starting with p sorts before p + the highest char
+        int to = lowerBound(p + Character.MAX_VALUE);
+        return entries.subList(from, to);
+    }
+
+    /**
+     * @param prefix the start of a postcode; null or blank matches every entry
+     * @param after  the id of the last item of the previous page, or null for the first page
+     * @param limit  the page size, see {@link #effectiveLimit(Integer)}
+     */
+    public LookupPage<PostcodeDto> find(String prefix, String after, int limit) {
+        int size = effectiveLimit(limit);
+        List<PostcodeDto> matches = findByPrefix(prefix);
+        int start = after == null || after.isBlank() ? 0 : indexAfter(matches, after.trim());
+        int end = Math.min(start + size, matches.size());
+        String nextCursor = end < matches.size() ? matches.get(end - 1).getId() : null;
+        return new LookupPage<>(matches.subList(start, end), matches.size(), nextCursor);
+    }
+
+    // page size actually used for a requested limit: the default when absent, clamped to 1..MAX_LIMIT
+    public static int effectiveLimit(Integer limit) {
+        if (limit == null) return DEFAULT_LIMIT;
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Reference> resolve(Set<String> requested) {
+        Map<String, Reference> resolved = new HashMap<>();
+        for (String code : requested) {
+            int index = lowerBound(code);
+            if (index < codes.length && codes[index].equals(code)) {
+                PostcodeDto entry = entries.get(index);
+                resolved.put(code, new Reference(entry.getId(), entry.getName()));
+            }
+        }
+        return resolved;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    // position right after the cursor entry; keyset on the code part of the id, then the run of equal codes
+    private static int indexAfter(List<PostcodeDto> matches, String cursor) {
+        int dash = cursor.indexOf('-');
+        String code = dash > 0 ? cursor.substring(0, dash) : cursor;
+        int low = 0;
+        int high = matches.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (matches.get(mid).getCode().compareTo(code) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int i = low;
+        while (i < matches.size() && matches.get(i).getCode().equals(code)) {
+            if (matches.get(i++).getId().equals(cursor)) return i;
+        }
+        return i;
+    }
+
+    // index of the first code that is >= key
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = codes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (codes[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static byte[] read(String resource) {
+        try (InputStream in = PostcodeLookupService.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Postcode dataset " + resource + " not found on the classpath");
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read postcode dataset " + resource, e);
+        }
+    }
+
+    // one code;name per line, sorted on code; a code shared by several places gets the ids code-1, code-2, ...
+    private static PostcodeDto[] parse(String resource, String dataset) {
+        List<String[]> rows = new ArrayList<>(4096);
+        for (String raw : dataset.split("\n")) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.equalsIgnoreCase("code;name")) continue;
+            int separator = line.indexOf(';');
+            if (separator <= 0) {
+                throw new IllegalStateException("Invalid line in " + resource + ": " + line);
+            }
+            rows.add(new String[]{line.substring(0, separator).trim(), line.substring(separator + 1).trim()});
+        }
+        rows.sort(Comparator.<String[], String>comparing(r -> r[0]).thenComparing(r -> r[1]));
+
+        Map<String, Integer> perCode = new HashMap<>();
+        for (String[] row : rows) {
+            perCode.merge(row[0], 1, Integer::sum);
+        }
+        PostcodeDto[] result = new PostcodeDto[rows.size()];
+        int sequence = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            String code = rows.get(i)[0];
+            sequence = i > 0 && code.equals(rows.get(i - 1)[0]) ? sequence + 1 : 1;
+            String id = perCode.get(code) > 1 ? code + "-" + sequence : code;
+            result[i] = new PostcodeDto(id, code, rows.get(i)[1]);
+        }
+        return result;
+    }
+}
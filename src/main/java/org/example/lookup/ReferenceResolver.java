@@ -0,0 +1,131 @@
+package org.example.lookup;
+
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldValues;
+import org.example.ui.field.ReferenceField;
+import org.example.ui.form.Form;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Vult vóór het renderen de naam en id van reference-velden in, met één batch per {@link LookupProvider}.
+ */
+@Component
+public class ReferenceResolver {
+    private static final Logger log = LoggerFactory.getLogger(ReferenceResolver.class);
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LookupProviderRegistry providers;
+    private final Duration timeout;
+
+    // resolves nothing, for renderers that are used without lookups
+    public ReferenceResolver() {
+        this(new LookupProviderRegistry(List.of()), new LookupProperties());
+    }
+
+    @Autowired
+    public ReferenceResolver(LookupProviderRegistry providers, LookupProperties properties) {
+        this.providers = providers;
+        this.timeout = properties.getResolveTimeout();
+    }
+
+    public void resolve(Form form, FieldValues values) {
+        resolve(form.getFields(), values);
+    }
+
+    // only the given fields, e.g. the ones of a single row or section
+    public void resolve(List<Field> fields, FieldValues values) {
+        Map<LookupProvider, List<ReferenceField>> batches = collect(fields, values);
+        if (batches.isEmpty()) return;
+
+        // local lookups and a single remote provider run on the calling thread, only several remote ones fan out
+        Map<LookupProvider, List<ReferenceField>> remote = new LinkedHashMap<>();
+        batches.forEach((provider, references) -> {
+            if (!provider.isLocal()) remote.put(provider, references);
+        });
+        batches.forEach((provider, references) -> {
+            if (provider.isLocal() || remote.size() == 1) resolveInline(provider, references, values);
+        });
+        if (remote.size() < 2) return;
+
+        Map<LookupProvider, CompletableFuture<Map<String, LookupProvider.Reference>>> calls = new LinkedHashMap<>();
+        remote.forEach((provider, references) ->
+                calls.put(provider, CompletableFuture.supplyAsync(() -> call(provider, references, values), EXECUTOR)));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        calls.forEach((provider, call) -> {
+            try {
+                apply(remote.get(provider), values, call.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                call.cancel(true);
+                log.warn("Lookup provider '{}' did not answer within {}, rendering without its names", provider.getType(), timeout);
+            } catch (ExecutionException e) {
+                log.warn("Lookup provider '{}' failed, rendering without its names: {}", provider.getType(), e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private static void resolveInline(LookupProvider provider, List<ReferenceField> references, FieldValues values) {
+        try {
+            apply(references, values, call(provider, references, values));
+        } catch (RuntimeException e) {
+            log.warn("Lookup provider '{}' failed, rendering without its names: {}", provider.getType(), e.toString());
+        }
+    }
+
+    private Map<LookupProvider, List<ReferenceField>> collect(List<Field> fields, FieldValues values) {
+        Map<LookupProvider, List<ReferenceField>> batches = new LinkedHashMap<>();
+        for (Field field : fields) {
+            if (!(field instanceof ReferenceField rf) || !needsResolving(rf, values)) continue;
+            LookupProvider provider = providers.find(rf.getLookupType());
+            if (provider == null) {
+                log.debug("No lookup provider for type '{}' of field '{}'", rf.getLookupType(), rf.getName());
+                continue;
+            }
+            batches.computeIfAbsent(provider, p -> new ArrayList<>()).add(rf);
+        }
+        return batches;
+    }
+
+    private static boolean needsResolving(ReferenceField field, FieldValues values) {
+        String code = field.getCode(values);
+        return field.getLookupType() != null
+                && code != null && !code.isBlank()
+                && (field.getDisplayName(values) == null || field.getIdValue(values) == null);
+    }
+
+    private static Map<String, LookupProvider.Reference> call(LookupProvider provider, List<ReferenceField> fields, FieldValues values) {
+        Set<String> codes = new LinkedHashSet<>();
+        for (ReferenceField field : fields) {
+            codes.add(field.getCode(values).trim());
+        }
+        return provider.resolve(codes);
+    }
+
+    private static void apply(List<ReferenceField> fields, FieldValues values, Map<String, LookupProvider.Reference> resolved) {
+        for (ReferenceField field : fields) {
+            LookupProvider.Reference reference = resolved.get(field.getCode(values).trim());
+            if (reference == null) continue;
+            if (field.getDisplayName(values) == null) field.setDisplayName(values, reference.name());
+            if (field.getIdValue(values) == null) field.setIdValue(values, reference.id());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.render;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer die de {@code <head>} meteen doorstuurt en de body buffert tot het formulier afgesloten is.
+ */
+final class HeadFlushingWriter extends Writer {
+    private static final char[] HEAD_END = "</head>".toCharArray();
+    private static final char[] FORM_END = "</form>".toCharArray();
+
+    private final Writer target;
+    private final StringBuilder buffer = new StringBuilder(2048);
+    // end tag that releases the buffer; null once everything goes straight to the target
+    private char[] marker = HEAD_END;
+    private int matched;
+    private boolean committed;
+    private long sent;
+    private long written;
+
+    HeadFlushingWriter(Writer target) {
+        this.target = target;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        written += len;
+        int end = off + len;
+        int from = off;
+        while (marker != null) {
+            int found = scan(cbuf, null, from, end);
+            if (found < 0) {
+                buffer.append(cbuf, from, end - from);
+                return;
+            }
+            buffer.append(cbuf, from, found - from);
+            release();
+            from = found;
+        }
+        target.write(cbuf, from, end - from);
+        sent += end - from;
+    }
+
+    // same scan as for a char array, without copying the string first
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        written += len;
+        int end = off + len;
+        int from = off;
+        while (marker != null) {
+            int found = scan(null, str, from, end);
+            if (found < 0) {
+                buffer.append(str, from, end);
+                return;
+            }
+            buffer.append(str, from, found);
+            release();
+            from = found;
+        }
+        target.write(str, from, end - from);
+        sent += end - from;
+    }
+
+    // true once the head was sent to the client
+    boolean isCommitted() {
+        return committed;
+    }
+
+    // true while the output since the head can still be dropped
+    boolean canDiscard() {
+        return marker != null;
+    }
+
+    // characters written since the last discard
+    long getWritten() {
+        return written;
+    }
+
+    // drops everything buffered so far; once the head was sent, only the body is dropped
+    void discard() {
+        if (marker == null) throw new IllegalStateException("Output was already sent to the client");
+        buffer.setLength(0);
+        matched = 0;
+        written = sent;
+    }
+
+    // position right after the marker in chars or str, -1 when the marker does not end in the range
+    private int scan(char[] chars, String str, int from, int end) {
+        for (int i = from; i < end; i++) {
+            char c = chars != null ? chars[i] : str.charAt(i);
+            if (Character.toLowerCase(c) == marker[matched]) {
+                if (++matched == marker.length) {
+                    matched = 0;
+                    return i + 1;
+                }
+            } else {
+                matched = c == marker[0] ? 1 : 0;
+            }
+        }
+        return -1;
+    }
+
+    // sends the buffer; after the head the body is held back until the form is complete
+    private void release() throws IOException {
+        commit();
+        marker = marker == HEAD_END ? FORM_END : null;
+    }
+
+    private void commit() throws IOException {
+        committed = true;
+        target.append(buffer);
+        sent += buffer.length();
+        buffer.setLength(0);
+        target.flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (marker != null) {
+            commit();
+            marker = null;
+        } else {
+            target.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        target.close();
+    }
+}
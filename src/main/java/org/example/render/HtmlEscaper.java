@@ -0,0 +1,110 @@
+package org.example.render;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * HTML-escaping in één pass, voor tekst- en attribuut-context.
+ */
+public final class HtmlEscaper {
+
+    private HtmlEscaper() {
+    }
+
+    public static String escapeText(String s) {
+        return escape(s, false);
+    }
+
+    public static String escapeAttribute(String s) {
+        return escape(s, true);
+    }
+
+    public static void appendText(StringBuilder out, String s) {
+        append(out, s, false);
+    }
+
+    public static void appendAttribute(StringBuilder out, String s) {
+        append(out, s, true);
+    }
+
+    public static void writeText(Writer out, String s) throws IOException {
+        write(out, s, false);
+    }
+
+    public static void writeAttribute(Writer out, String s) throws IOException {
+        write(out, s, true);
+    }
+
+    private static String escape(String s, boolean attribute) {
+        if (s == null) return "";
+        int first = indexOfEscapable(s, 0, attribute);
+        if (first < 0) return s;
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        sb.append(s, 0, first);
+        appendFrom(sb, s, first, attribute);
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder out, String s, boolean attribute) {
+        if (s == null) return;
+        int first = indexOfEscapable(s, 0, attribute);
+        if (first < 0) {
+            out.append(s);
+            return;
+        }
+        out.append(s, 0, first);
+        appendFrom(out, s, first, attribute);
+    }
+
+    private static void appendFrom(StringBuilder out, String s, int from, boolean attribute) {
+        int start = from;
+        for (int i = from; i < s.length(); i++) {
+            String replacement = replacement(s.charAt(i), attribute);
+            if (replacement != null) {
+                out.append(s, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        out.append(s, start, s.length());
+    }
+
+    private static void write(Writer out, String s, boolean attribute) throws IOException {
+        if (s == null) return;
+        int start = 0;
+        for (int i = indexOfEscapable(s, 0, attribute); i >= 0 && i < s.length(); i++) {
+            String replacement = replacement(s.charAt(i), attribute);
+            if (replacement != null) {
+                out.write(s, start, i - start);
+                out.write(replacement);
+                start = i + 1;
+            }
+        }
+        out.write(s, start, s.length() - start);
+    }
+
+    private static int indexOfEscapable(String s, int from, boolean attribute) {
+        for (int i = from; i < s.length(); i++) {
+            if (replacement(s.charAt(i), attribute) != null) return i;
+        }
+        return -1;
+    }
+
+    private static String replacement(char c, boolean attribute) {
+        // everything above '>' is safe, which covers letters and most punctuation in one compare
+        if (c > '>') return null;
+        switch (c) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return attribute ? "&quot;" : null;
+            case '\'':
+                return attribute ? "&#39;" : null;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.render;
+
+import org.example.ui.ContentHash;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Register van de veld-iconen, samen geserveerd als één SVG sprite op {@link #SPRITE_PATH}.
+ */
+@Component
+public final class IconRegistry {
+    public static final String SPRITE_PATH = "/icons/sprite.svg";
+    // used for icon names that are not registered
+    public static final String DEFAULT_ICON = "hash";
+
+    private static final String STROKE = " stroke=\"currentColor\" stroke-width=\"1.2\" stroke-linecap=\"round\" stroke-linejoin=\"round\"";
+
+    private final Map<String, String> symbols = new LinkedHashMap<>();
+    private volatile String sprite;
+    private volatile String version;
+
+    public IconRegistry() {
+        register("user", "0 0 24 24", "<path d=\"M12 12c2.7614 0 5-2.2386 5-5s-2.2386-5-5-5-5 2.2386-5 5 2.2386 5 5 5zM4 20.25C4 16.798 7.5817 14 12 14s8 2.798 8 6.25V22H4v-1.75z\"" + STROKE + "/>");
+        register("calendar", "0 0 24 24", "<path d=\"M7 10h10M7 14h4M3 7h18M7 3v4M17 3v4\"" + STROKE + "/>");
+        register(DEFAULT_ICON, "0 0 24 24", "<path d=\"M3 12h18M12 3v18\"" + STROKE + "/>");
+        register("search", "0 0 24 24", "<path d=\"M21 21l-4.35-4.35M10 18a8 8 0 100-16 8 8 0 000 16z\" stroke=\"currentColor\" stroke-width=\"1.5\" stroke-linecap=\"round\" stroke-linejoin=\"round\"/>");
+    }
+
+    /**
+     * Registers (or replaces) an icon.
+     *
+     * @param name    the key used with {@code Field.icon(name)}
+     * @param viewBox the viewBox of the original SVG, e.g. {@code "0 0 24 24"}
+     * @param body    the inner SVG markup (paths, circles, ...), trusted markup
+     */
+    public synchronized IconRegistry register(String name, String viewBox, String body) {
+        symbols.put(name, "<symbol id=\"icon-" + HtmlEscaper.escapeAttribute(name) + "\" viewBox=\""
+                + HtmlEscaper.escapeAttribute(viewBox) + "\" fill=\"none\">" + body + "</symbol>");
+        sprite = null;
+        version = null;
+        return this;
+    }
+
+    public synchronized boolean contains(String name) {
+        return symbols.containsKey(name);
+    }
+
+    public String getSprite() {
+        String s = sprite;
+        if (s == null) {
+            s = buildSprite();
+        }
+        return s;
+    }
+
+    public String getVersion() {
+        String v = version;
+        if (v == null) {
+            getSprite();
+            v = version;
+        }
+        return v;
+    }
+
+    public String getSpriteUrl() {
+        return SPRITE_PATH + "?v=" + getVersion();
+    }
+
+    // small inline reference to a symbol of the sprite; unknown names fall back to the default icon
+    public String useMarkup(String name) {
+        String symbol = contains(name) ? name : DEFAULT_ICON;
+        return "<svg class=\"icon\" width=\"16\" height=\"16\" aria-hidden=\"true\"><use href=\""
+                + getSpriteUrl() + "#icon-" + HtmlEscaper.escapeAttribute(symbol) + "\"></use></svg>";
+    }
+
+    private synchronized String buildSprite() {
+        if (sprite != null) return sprite;
+        StringBuilder sb = new StringBuilder("<svg xmlns=\"http://www.w3.org/2000/svg\">\n");
+        for (String symbol : symbols.values()) {
+            sb.append(symbol).append('\n');
+        }
+        sb.append("</svg>\n");
+        String built = sb.toString();
+        version = ContentHash.of(built);
+        sprite = built;
+        return built;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.render;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+/**
+ * De enige template engine van de applicatie, gedeeld door {@link ThymeleafRenderer} en Spring MVC.
+ */
+@Configuration
+public class RenderConfig {
+
+    @Bean
+    public SpringTemplateEngine templateEngine(RenderProperties properties, IconRegistry icons) {
+        return ThymeleafRenderer.createEngine(properties, icons);
+    }
+}
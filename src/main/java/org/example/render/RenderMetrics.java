@@ -0,0 +1,95 @@
+package org.example.render;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer-metingen van {@link ThymeleafRenderer} per screen-klasse: formulier, template, grootte en fallbacks.
+ */
+@Component
+public class RenderMetrics {
+
+    public static final String FORM = "ui.render.form";
+    public static final String TEMPLATE = "ui.render.template";
+    public static final String OUTPUT = "ui.render.output";
+    public static final String FALLBACK = "ui.render.fallback";
+    public static final String CIRCUIT_OPEN = "CircuitOpen";
+
+    private final MeterRegistry registry;
+    private final ClassValue<ScreenMeters> screens = new ClassValue<>() {
+        @Override
+        protected ScreenMeters computeValue(Class<?> type) {
+            return new ScreenMeters(registry, type.getSimpleName());
+        }
+    };
+
+    // without a registry every meter is a no-op, e.g. for renderers created in tests
+    public RenderMetrics() {
+        this(new CompositeMeterRegistry());
+    }
+
+    @Autowired
+    public RenderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    ScreenMeters forScreen(Class<?> screenType) {
+        return screens.get(screenType);
+    }
+
+    static final class ScreenMeters {
+        private final MeterRegistry registry;
+        private final String screen;
+        private final Timer form;
+        private final Timer template;
+        private final DistributionSummary output;
+        private final Counter circuitOpen;
+        private final Map<Class<?>, Counter> fallbacks = new ConcurrentHashMap<>();
+
+        private ScreenMeters(MeterRegistry registry, String screen) {
+            this.registry = registry;
+            this.screen = screen;
+            this.form = Timer.builder(FORM).description("Building the form of a screen")
+                    .tag("screen", screen).register(registry);
+            this.template = Timer.builder(TEMPLATE).description("Processing the screen template")
+                    .tag("screen", screen).register(registry);
+            this.output = DistributionSummary.builder(OUTPUT).description("Size of a rendered page")
+                    .baseUnit("characters").tag("screen", screen).register(registry);
+            this.circuitOpen = fallbackCounter(CIRCUIT_OPEN);
+        }
+
+        void recordForm(long nanos) {
+            form.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        void recordTemplate(long nanos) {
+            template.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        void recordOutput(long characters) {
+            output.record(characters);
+        }
+
+        void recordFallback(Class<? extends Throwable> exception) {
+            fallbacks.computeIfAbsent(exception, type -> fallbackCounter(type.getSimpleName())).increment();
+        }
+
+        void recordCircuitOpen() {
+            circuitOpen.increment();
+        }
+
+        private Counter fallbackCounter(String exception) {
+            return Counter.builder(FALLBACK).description("Pages rendered by the simple HTML fallback")
+                    .tag("screen", screen).tag("exception", exception).register(registry);
+        }
+    }
+}
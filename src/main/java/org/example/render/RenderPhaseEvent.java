@@ -0,0 +1,34 @@
+package org.example.render;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event voor één fase van het renderen van een scherm (zie {@link RenderTrace}).
+ */
+@Name(RenderPhaseEvent.NAME)
+@Label("Render Phase")
+@Category({"UI Framework", "Rendering"})
+@Description("One phase of rendering a screen: dto, form, lookups, template or fallback")
+@StackTrace(false)
+public final class RenderPhaseEvent extends Event {
+
+    public static final String NAME = "org.example.render.RenderPhase";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Screen")
+    Class<?> screen;
+
+    @Label("Field Count")
+    int fieldCount;
+
+    @Label("Output Size")
+    @Description("Characters written by the phase, 0 for phases that do not write")
+    long outputSize;
+}
@@ -0,0 +1,171 @@
+package org.example.render;
+
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldErrors;
+import org.example.ui.field.FieldValues;
+import org.example.ui.form.Form;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Voorgecompileerd formulier: statische HTML-stukken afgewisseld met value-slots, gedeeld per screen-klasse.
+ */
+public final class RenderPlan {
+
+    enum SlotKind {
+        /** optioneel {@code value="..."} attribuut, weggelaten wanneer de waarde null is */
+        VALUE_ATTRIBUTE,
+        /** ge-escapete tekst-inhoud, leeg wanneer de waarde null is */
+        TEXT,
+        /** {@code selected} marker op een option wanneer de waarde gelijk is aan de option-id */
+        SELECTED,
+        /** extra class {@code has-error} op het form-item wanneer het veld een fout heeft */
+        ERROR_CLASS,
+        /** foutmelding van het veld, met een verborgen {@code _invalid} marker voor de volgende submit */
+        ERROR_MESSAGE
+    }
+
+    /** request parameter through which a form reports the fields that were shown with an error */
+    public static final String INVALID_PARAMETER = "_invalid";
+
+    record Slot(int fieldIndex, SlotKind kind, BiFunction<Field, FieldValues, Object> source, String optionId) {
+    }
+
+    private final String[] chunks;
+    private final Slot[] slots;
+    // what the plan was compiled from: the sections of a form, a row, a section or a single field
+    private final Object source;
+
+    RenderPlan(List<String> chunks, List<Slot> slots, Object source) {
+        if (chunks.size() != slots.size() + 1) {
+            throw new IllegalArgumentException("A plan needs exactly one more chunk than slots");
+        }
+        this.chunks = chunks.toArray(new String[0]);
+        this.slots = slots.toArray(new Slot[0]);
+        this.source = source;
+    }
+
+    // labels, options, icons and the row and section layout are part of the static markup, so the plan
+    // only applies to a form with the very same field instances in the same rows and sections
+    public boolean matches(Form form) {
+        return source.equals(form.getSections());
+    }
+
+    boolean matches(Form.Row row) {
+        return source.equals(row);
+    }
+
+    boolean matches(Form.Section section) {
+        return source.equals(section);
+    }
+
+    public String render(List<Field> fields, FieldValues values) {
+        return render(fields, values, null);
+    }
+
+    public String render(List<Field> fields, FieldValues values, FieldErrors errors) {
+        StringBuilder sb = new StringBuilder(estimatedLength());
+        render(fields, values, errors, sb);
+        return sb.toString();
+    }
+
+    public void render(List<Field> fields, FieldValues values, FieldErrors errors, StringBuilder out) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(chunks[i]);
+            writeSlot(slots[i], fields.get(slots[i].fieldIndex()), values, errors, out);
+        }
+        out.append(chunks[slots.length]);
+    }
+
+    public void write(List<Field> fields, FieldValues values, Writer out) throws IOException {
+        write(fields, values, null, out);
+    }
+
+    public void write(List<Field> fields, FieldValues values, FieldErrors errors, Writer out) throws IOException {
+        for (int i = 0; i < slots.length; i++) {
+            out.write(chunks[i]);
+            writeSlot(slots[i], fields.get(slots[i].fieldIndex()), values, errors, out);
+        }
+        out.write(chunks[slots.length]);
+    }
+
+    public int getSlotCount() {
+        return slots.length;
+    }
+
+    private int estimatedLength() {
+        int length = 0;
+        for (String chunk : chunks) length += chunk.length();
+        // leave some room for the values
+        return length + slots.length * 16;
+    }
+
+    private static void writeSlot(Slot slot, Field field, FieldValues values, FieldErrors errors, StringBuilder out) {
+        switch (slot.kind()) {
+            case VALUE_ATTRIBUTE -> {
+                Object value = slot.source().apply(field, values);
+                if (value != null) {
+                    out.append(" value=\"");
+                    HtmlEscaper.appendAttribute(out, value.toString());
+                    out.append('"');
+                }
+            }
+            case TEXT -> {
+                Object value = slot.source().apply(field, values);
+                if (value != null) HtmlEscaper.appendText(out, value.toString());
+            }
+            case SELECTED -> {
+                if (slot.optionId().equals(slot.source().apply(field, values))) out.append(" selected");
+            }
+            case ERROR_CLASS -> {
+                if (errors != null && errors.hasError(field)) out.append(" has-error");
+            }
+            case ERROR_MESSAGE -> {
+                String message = errors == null ? null : errors.messageFor(field);
+                if (message != null) {
+                    out.append("<div class=\"field-error\" role=\"alert\">");
+                    HtmlEscaper.appendText(out, message);
+                    out.append("<input type=\"hidden\" name=\"" + INVALID_PARAMETER + "\" value=\"");
+                    HtmlEscaper.appendAttribute(out, field.getName());
+                    out.append("\" /></div>\n");
+                }
+            }
+        }
+    }
+
+    private static void writeSlot(Slot slot, Field field, FieldValues values, FieldErrors errors, Writer out) throws IOException {
+        switch (slot.kind()) {
+            case VALUE_ATTRIBUTE -> {
+                Object value = slot.source().apply(field, values);
+                if (value != null) {
+                    out.write(" value=\"");
+                    HtmlEscaper.writeAttribute(out, value.toString());
+                    out.write('"');
+                }
+            }
+            case TEXT -> {
+                Object value = slot.source().apply(field, values);
+                if (value != null) HtmlEscaper.writeText(out, value.toString());
+            }
+            case SELECTED -> {
+                if (slot.optionId().equals(slot.source().apply(field, values))) out.write(" selected");
+            }
+            case ERROR_CLASS -> {
+                if (errors != null && errors.hasError(field)) out.write(" has-error");
+            }
+            case ERROR_MESSAGE -> {
+                String message = errors == null ? null : errors.messageFor(field);
+                if (message != null) {
+                    out.write("<div class=\"field-error\" role=\"alert\">");
+                    HtmlEscaper.writeText(out, message);
+                    out.write("<input type=\"hidden\" name=\"" + INVALID_PARAMETER + "\" value=\"");
+                    HtmlEscaper.writeAttribute(out, field.getName());
+                    out.write("\" /></div>\n");
+                }
+            }
+        }
+    }
+}
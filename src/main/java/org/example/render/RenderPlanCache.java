@@ -0,0 +1,110 @@
+package org.example.render;
+
+import org.example.ui.field.Field;
+import org.example.ui.form.Form;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Gecompileerde {@link RenderPlan}s per screen-klasse; enkel formulieren met vaste velden krijgen een gedeeld plan.
+ */
+final class RenderPlanCache {
+    private static final Logger log = LoggerFactory.getLogger(RenderPlanCache.class);
+
+    private final Map<Class<?>, RenderPlan> plans = new ConcurrentHashMap<>();
+    private final Map<Class<?>, RenderPlan> eagerPlans = new ConcurrentHashMap<>();
+    private final Map<Field, RenderPlan> fields = new ConcurrentHashMap<>();
+    private final Map<Field, RenderPlan> outOfBandFields = new ConcurrentHashMap<>();
+    private final Map<RowKey, RenderPlan> outOfBandRows = new ConcurrentHashMap<>();
+    private final Map<SectionKey, RenderPlan> sections = new ConcurrentHashMap<>();
+    private final IconRegistry icons;
+    private final Function<Class<?>, String> fragmentUrls;
+
+    RenderPlanCache(IconRegistry icons) {
+        this(icons, type -> null);
+    }
+
+    // fragmentUrls gives the base URL of a screen's fragment endpoints, null when it has none
+    RenderPlanCache(IconRegistry icons, Function<Class<?>, String> fragmentUrls) {
+        this.icons = icons;
+        this.fragmentUrls = fragmentUrls;
+    }
+
+    RenderPlan planFor(Class<?> screenType, Form form) {
+        return planFor(screenType, form, true);
+    }
+
+    // with deferSections false every section is rendered up front
+    RenderPlan planFor(Class<?> screenType, Form form, boolean deferSections) {
+        String fragmentUrl = deferSections ? fragmentUrls.apply(screenType) : null;
+        if (!shareable(form)) {
+            return RenderPlanCompiler.compile(form, icons, fragmentUrl);
+        }
+        RenderPlan plan = (deferSections ? plans : eagerPlans)
+                .computeIfAbsent(screenType, type -> RenderPlanCompiler.compile(form, icons, fragmentUrl));
+        if (plan.matches(form)) {
+            return plan;
+        }
+        log.debug("Form of screen {} differs from its cached render plan, compiling a one-off plan", screenType.getName());
+        return RenderPlanCompiler.compile(form, icons, fragmentUrl);
+    }
+
+    // single form item, for ui:field; like outOfBandPlanFor only fields of a schema are cached
+    RenderPlan planFor(Field field) {
+        if (!field.isSealed()) {
+            return RenderPlanCompiler.compileField(field, icons);
+        }
+        return fields.computeIfAbsent(field, f -> RenderPlanCompiler.compileField(f, icons));
+    }
+
+    // single form item with hx-swap-oob; only fields of a schema are shared constants worth caching
+    RenderPlan outOfBandPlanFor(Field field) {
+        if (!field.isSealed()) {
+            return RenderPlanCompiler.compileField(field, icons, true);
+        }
+        return outOfBandFields.computeIfAbsent(field, f -> RenderPlanCompiler.compileField(f, icons, true));
+    }
+
+    // single row of the form with hx-swap-oob, per screen class and row index; shared and checked like planFor
+    RenderPlan outOfBandPlanFor(Class<?> screenType, Form form, Form.Row row) {
+        if (!shareable(form)) {
+            return RenderPlanCompiler.compileRow(row, icons, true);
+        }
+        RenderPlan plan = outOfBandRows.computeIfAbsent(new RowKey(screenType, row.index()),
+                key -> RenderPlanCompiler.compileRow(row, icons, true));
+        return plan.matches(row) ? plan : RenderPlanCompiler.compileRow(row, icons, true);
+    }
+
+    // body of a named section of the form with hx-swap-oob, per screen class and section name
+    RenderPlan sectionPlanFor(Class<?> screenType, Form form, Form.Section section) {
+        if (!shareable(form)) {
+            return RenderPlanCompiler.compileSection(section, icons);
+        }
+        RenderPlan plan = sections.computeIfAbsent(new SectionKey(screenType, section.name()),
+                key -> RenderPlanCompiler.compileSection(section, icons));
+        return plan.matches(section) ? plan : RenderPlanCompiler.compileSection(section, icons);
+    }
+
+    // a frozen form or schema fields can no longer change after the plan is compiled
+    private static boolean shareable(Form form) {
+        if (form.isFrozen()) return true;
+        for (Field field : form.getFields()) {
+            if (!field.isSealed()) return false;
+        }
+        return true;
+    }
+
+    int size() {
+        return plans.size();
+    }
+
+    private record RowKey(Class<?> screenType, int index) {
+    }
+
+    private record SectionKey(Class<?> screenType, String name) {
+    }
+}
@@ -0,0 +1,221 @@
+package org.example.render;
+
+import org.example.ui.field.DateField;
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldValues;
+import org.example.ui.field.NumberField;
+import org.example.ui.field.ReferenceField;
+import org.example.ui.field.SelectField;
+import org.example.ui.field.TextField;
+import org.example.ui.form.Form;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.example.render.HtmlEscaper.escapeAttribute;
+import static org.example.render.HtmlEscaper.escapeText;
+import static org.example.render.ThymeleafRenderer.nullToEmpty;
+
+/**
+ * Zet de structuur van een {@link Form} eenmalig om in een {@link RenderPlan}; enkel de waarden blijven slots.
+ */
+final class RenderPlanCompiler {
+
+    private final IconRegistry icons;
+    private final List<String> chunks = new ArrayList<>();
+    private final List<RenderPlan.Slot> slots = new ArrayList<>();
+    private final StringBuilder current = new StringBuilder();
+
+    private final boolean outOfBand;
+
+    private RenderPlanCompiler(IconRegistry icons, boolean outOfBand) {
+        this.icons = icons;
+        this.outOfBand = outOfBand;
+    }
+
+    static RenderPlan compile(Form form, IconRegistry icons) {
+        return compile(form, icons, null);
+    }
+
+    // fragmentUrl is the base URL of the screen's fragment endpoints; null renders deferred sections up front
+    static RenderPlan compile(Form form, IconRegistry icons, String fragmentUrl) {
+        return new RenderPlanCompiler(icons, false).compileForm(form, fragmentUrl);
+    }
+
+    // plan for a single form item, used where a template places fields one by one
+    static RenderPlan compileField(Field field, IconRegistry icons) {
+        return compileField(field, icons, false);
+    }
+
+    // with outOfBand the form item carries hx-swap-oob, so htmx swaps it into the page by its id
+    static RenderPlan compileField(Field field, IconRegistry icons, boolean outOfBand) {
+        RenderPlanCompiler compiler = new RenderPlanCompiler(icons, outOfBand);
+        compiler.appendField(field, 0);
+        compiler.chunks.add(compiler.current.toString());
+        return new RenderPlan(compiler.chunks, compiler.slots, field);
+    }
+
+    // plan for one row; with outOfBand the row carries hx-swap-oob and htmx swaps it by its id
+    static RenderPlan compileRow(Form.Row row, IconRegistry icons, boolean outOfBand) {
+        RenderPlanCompiler compiler = new RenderPlanCompiler(icons, false);
+        compiler.appendRow(row, 0, outOfBand);
+        compiler.chunks.add(compiler.current.toString());
+        return new RenderPlan(compiler.chunks, compiler.slots, row);
+    }
+
+    // body of one section with hx-swap-oob; slot indices are relative to the section's fields
+    static RenderPlan compileSection(Form.Section section, IconRegistry icons) {
+        RenderPlanCompiler compiler = new RenderPlanCompiler(icons, false);
+        compiler.appendSectionBody(section, section.firstField(), true);
+        compiler.chunks.add(compiler.current.toString());
+        return new RenderPlan(compiler.chunks, compiler.slots, section);
+    }
+
+    private RenderPlan compileForm(Form form, String fragmentUrl) {
+        markup("<div class=\"form-rows\">\n");
+        for (Form.Section section : form.getSections()) {
+            if (section.name() == null) {
+                for (Form.Row row : section.rows()) {
+                    appendRow(row, row.firstField(), false);
+                }
+                continue;
+            }
+            String id = escapeAttribute(section.name());
+            markup("<details class=\"form-section\" id=\"section-").append(id).append("\" open>\n");
+            markup("<summary class=\"form-section-title\">").append(escapeText(nullToEmpty(section.title()))).append("</summary>\n");
+            if (section.deferred() && fragmentUrl != null) {
+                // no slots: the fields are fetched by the placeholder and swapped in out of band
+                markup("<div class=\"form-section-body\" id=\"section-").append(id).append("-body\" hx-get=\"")
+                        .append(escapeAttribute(fragmentUrl)).append("/sections/").append(id)
+                        .append("\" hx-trigger=\"intersect once\" hx-swap=\"none\" aria-busy=\"true\">")
+                        .append("<span class=\"form-section-loading\">Laden…</span></div>\n");
+            } else {
+                appendSectionBody(section, 0, false);
+            }
+            markup("</details>\n");
+        }
+        markup("</div>\n");
+        chunks.add(current.toString());
+        return new RenderPlan(chunks, slots, form.getSections());
+    }
+
+    // offset is subtracted from the form-wide field index of each row
+    private void appendSectionBody(Form.Section section, int offset, boolean bodyOutOfBand) {
+        markup("<div class=\"form-section-body\" id=\"section-").append(escapeAttribute(section.name())).append("-body\"");
+        if (bodyOutOfBand) markup(" hx-swap-oob=\"true\"");
+        markup(">\n");
+        for (Form.Row row : section.rows()) {
+            appendRow(row, row.firstField() - offset, false);
+        }
+        markup("</div>\n");
+    }
+
+    private void appendRow(Form.Row row, int firstIndex, boolean rowOutOfBand) {
+        markup("<div class=\"form-row\" id=\"row-").append(row.index()).append('"');
+        if (rowOutOfBand) markup(" hx-swap-oob=\"true\"");
+        markup(" style=\"grid-template-columns: repeat(").append(row.columns()).append(", 1fr)\">\n");
+        int index = firstIndex;
+        for (Field f : row.fields()) {
+            appendField(f, index++);
+        }
+        markup("</div>\n");
+    }
+
+    private void appendField(Field f, int index) {
+        markup("<div class=\"form-item");
+        slot(index, RenderPlan.SlotKind.ERROR_CLASS, null, null);
+        markup("\" id=\"field-").append(escapeAttribute(f.getName())).append('"');
+        if (outOfBand) markup(" hx-swap-oob=\"true\"");
+        markup(">\n");
+        markup("<label class=\"form-label\" style=\"display:block;margin-bottom:10px;\">")
+                .append(escapeText(f.getLabel())).append("</label>\n");
+        markup("<div class=\"form-control\">\n");
+        if (f instanceof TextField tf) {
+            appendIconInput("text", tf, index);
+            if (tf.getMaxLength() != null) markup(" maxlength=\"").append(tf.getMaxLength()).append('"');
+            markup(" />\n</div>\n");
+        } else if (f instanceof NumberField nf) {
+            appendIconInput("number", nf, index);
+            if (nf.getMin() != null) markup(" min=\"").append(nf.getMin()).append('"');
+            if (nf.getMax() != null) markup(" max=\"").append(nf.getMax()).append('"');
+            markup(" />\n</div>\n");
+        } else if (f instanceof DateField df) {
+            appendIconInput("date", df, index);
+            markup(" />\n</div>\n");
+        } else if (f instanceof SelectField sf) {
+            appendSelect(sf, index);
+        } else if (f instanceof ReferenceField rf) {
+            appendReference(rf, index);
+        } else {
+            markup("<div><input type=\"text\" class=\"input\" name=\"").append(escapeAttribute(f.getName())).append("\" /></div>\n");
+        }
+        markup("</div>\n");
+        slot(index, RenderPlan.SlotKind.ERROR_MESSAGE, null, null);
+        markup("</div>\n");
+    }
+
+    // opens the icon wrapper and leaves the <input> tag open for type-specific attributes
+    private void appendIconInput(String type, Field f, int index) {
+        markup("<div class=\"input-with-icon\">\n");
+        String icon = f.getIcon();
+        if (icon != null && !icon.isEmpty()) {
+            markup("<span class=\"input-icon\">").append(icons.useMarkup(icon)).append("</span>\n");
+        }
+        markup("<input type=\"").append(type).append("\" class=\"input\" name=\"").append(escapeAttribute(f.getName())).append('"');
+        slot(index, RenderPlan.SlotKind.VALUE_ATTRIBUTE, RenderPlanCompiler::simpleValue, null);
+    }
+
+    private void appendSelect(SelectField sf, int index) {
+        markup("<div>\n<select class=\"input\" name=\"").append(escapeAttribute(sf.getName())).append("\">\n");
+        for (SelectField.Option opt : sf.getOptions()) {
+            markup("<option value=\"").append(escapeAttribute(opt.getId())).append('"');
+            slot(index, RenderPlan.SlotKind.SELECTED, (f, v) -> ((SelectField) f).getSelectedId(v), opt.getId());
+            markup(">").append(escapeText(opt.getLabel())).append("</option>\n");
+        }
+        markup("</select>\n</div>\n");
+    }
+
+    private void appendReference(ReferenceField rf, int index) {
+        String name = escapeAttribute(rf.getName());
+        String lookupUrl = escapeAttribute(nullToEmpty(rf.getLookupUrl()));
+        markup("<div class=\"reference-field\" style=\"display:flex;gap:8px;align-items:center;\">\n");
+        markup("<input type=\"text\" class=\"input\" id=\"ref-").append(name).append("-code\" name=\"").append(name).append("_code\"");
+        slot(index, RenderPlan.SlotKind.VALUE_ATTRIBUTE, (f, v) -> ((ReferenceField) f).getCode(v), null);
+        markup(" data-ref-code=\"").append(name).append("\" data-lookup-url=\"").append(lookupUrl).append('"')
+                .append(" placeholder=\"code\" style=\"width:120px;\" />\n");
+        markup("<span class=\"reference-name\" id=\"ref-").append(name).append("-name\">");
+        slot(index, RenderPlan.SlotKind.TEXT, (f, v) -> ((ReferenceField) f).getDisplayName(v), null);
+        markup("</span>\n");
+        markup("<button type=\"button\" class=\"btn icon\" title=\"Zoeken\" data-lookup-url=\"").append(lookupUrl)
+                .append("\" data-ref-code=\"").append(name).append("\" aria-label=\"Zoek\">")
+                .append(icons.useMarkup("search")).append("</button>\n");
+        markup("<input type=\"hidden\" id=\"ref-").append(name).append("-hidden\" name=\"").append(name).append('"');
+        slot(index, RenderPlan.SlotKind.VALUE_ATTRIBUTE, (f, v) -> ((ReferenceField) f).getIdValue(v), null);
+        markup(" />\n");
+        // the code the id belongs to, so the binder can drop the id once the code is edited
+        markup("<input type=\"hidden\" id=\"ref-").append(name).append("-idcode\" name=\"").append(name).append("_idcode\"");
+        slot(index, RenderPlan.SlotKind.VALUE_ATTRIBUTE, (f, v) -> {
+            ReferenceField reference = (ReferenceField) f;
+            return reference.getIdValue(v) == null ? null : reference.getCode(v);
+        }, null);
+        markup(" />\n</div>\n");
+    }
+
+    private static Object simpleValue(Field f, FieldValues values) {
+        if (f instanceof TextField tf) return tf.getValue(values);
+        if (f instanceof NumberField nf) return nf.getValue(values);
+        if (f instanceof DateField df) return df.getValue(values);
+        return null;
+    }
+
+    private StringBuilder markup(String html) {
+        return current.append(html);
+    }
+
+    private void slot(int fieldIndex, RenderPlan.SlotKind kind, BiFunction<Field, FieldValues, Object> source, String optionId) {
+        chunks.add(current.toString());
+        current.setLength(0);
+        slots.add(new RenderPlan.Slot(fieldIndex, kind, source, optionId));
+    }
+}
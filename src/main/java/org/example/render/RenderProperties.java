@@ -0,0 +1,101 @@
+package org.example.render;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Instellingen voor {@link ThymeleafRenderer} ({@code ui.render.*}); de defaults zijn die voor productie.
+ */
+@ConfigurationProperties("ui.render")
+public class RenderProperties {
+    private boolean devMode = false;
+    private int templateCacheSize = 200;
+    private Duration templateCacheTtl;
+    private boolean warmup = true;
+    private boolean serverTiming = false;
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    public boolean isDevMode() {
+        return devMode;
+    }
+
+    public void setDevMode(boolean devMode) {
+        this.devMode = devMode;
+    }
+
+    public int getTemplateCacheSize() {
+        return templateCacheSize;
+    }
+
+    public void setTemplateCacheSize(int templateCacheSize) {
+        this.templateCacheSize = templateCacheSize;
+    }
+
+    // null keeps parsed templates until they are evicted by size
+    public Duration getTemplateCacheTtl() {
+        return templateCacheTtl;
+    }
+
+    public void setTemplateCacheTtl(Duration templateCacheTtl) {
+        this.templateCacheTtl = templateCacheTtl;
+    }
+
+    public boolean isWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(boolean warmup) {
+        this.warmup = warmup;
+    }
+
+    // adds a Server-Timing header with the render phases; the page is then buffered instead of streamed
+    public boolean isServerTiming() {
+        return serverTiming;
+    }
+
+    public void setServerTiming(boolean serverTiming) {
+        this.serverTiming = serverTiming;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Instellingen van de {@link TemplateCircuitBreaker}: drempel en (verdubbelende) wachttijd tot een nieuwe poging.
+     */
+    public static class CircuitBreaker {
+        private int failureThreshold = 5;
+        private Duration initialBackoff = Duration.ofSeconds(5);
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        TemplateCircuitBreaker create() {
+            return new TemplateCircuitBreaker(failureThreshold, initialBackoff, maxBackoff);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.render;
+
+import java.util.Locale;
+
+/**
+ * Meet de fasen van één render-request, als JFR events en optioneel voor de {@value #HEADER} header.
+ */
+public final class RenderTrace {
+
+    public static final String HEADER = "Server-Timing";
+
+    public static final String DTO = "dto";
+    public static final String FORM = "form";
+    public static final String LOOKUPS = "lookups";
+    public static final String TEMPLATE = "template";
+    public static final String FALLBACK = "fallback";
+
+    private static final RenderTrace UNTIMED = new RenderTrace(false);
+    private static final int MAX_PHASES = 8;
+
+    private final boolean timed;
+    private final String[] names;
+    private final long[] durations;
+    private int count;
+
+    private RenderTrace(boolean timed) {
+        this.timed = timed;
+        this.names = timed ? new String[MAX_PHASES] : null;
+        this.durations = timed ? new long[MAX_PHASES] : null;
+    }
+
+    // collects the phase durations for the Server-Timing header
+    public static RenderTrace timed() {
+        return new RenderTrace(true);
+    }
+
+    // only emits the JFR events
+    public static RenderTrace untimed() {
+        return UNTIMED;
+    }
+
+    public boolean isTimed() {
+        return timed;
+    }
+
+    public Phase begin(String phase, Class<?> screen) {
+        return new Phase(this, phase, screen);
+    }
+
+    /**
+     * @return the phases as a {@code Server-Timing} header value, e.g. {@code form;dur=0.31, template;dur=4.10},
+     * or an empty string for an untimed trace
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder(24 * count);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) header.append(", ");
+            header.append(names[i]).append(";dur=")
+                    .append(String.format(Locale.ROOT, "%.2f", durations[i] / 1_000_000.0));
+        }
+        return header.toString();
+    }
+
+    // a phase that runs twice (e.g. lookups for the ETag and again for the page) is reported once, summed
+    private void add(String phase, long nanos) {
+        if (!timed) return;
+        for (int i = 0; i < count; i++) {
+            if (names[i].equals(phase)) {
+                durations[i] += nanos;
+                return;
+            }
+        }
+        if (count == MAX_PHASES) return;
+        names[count] = phase;
+        durations[count++] = nanos;
+    }
+
+    /** Een lopende fase; {@link #end} sluit ze af. */
+    public static final class Phase {
+        private final RenderTrace trace;
+        private final RenderPhaseEvent event = new RenderPhaseEvent();
+        private final String name;
+        private final Class<?> screen;
+        private final long start;
+
+        private Phase(RenderTrace trace, String name, Class<?> screen) {
+            this.trace = trace;
+            this.name = name;
+            this.screen = screen;
+            this.start = System.nanoTime();
+            event.begin();
+        }
+
+        /**
+         * @param fieldCount the number of fields the phase worked on
+         * @param outputSize the characters the phase wrote, 0 when it does not write
+         * @return the duration of the phase in nanoseconds
+         */
+        public long end(int fieldCount, long outputSize) {
+            long nanos = System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.screen = screen;
+                event.fieldCount = fieldCount;
+                event.outputSize = outputSize;
+                event.commit();
+            }
+            trace.add(name, nanos);
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.render;
+
+import org.example.ui.ScreenRegistry;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rendert bij het opstarten elk geregistreerd screen eenmaal, zodat het eerste echte request niet opwarmt.
+ */
+@Component
+public class RenderWarmup implements ApplicationRunner {
+    private final ThymeleafRenderer renderer;
+    private final ScreenRegistry screens;
+    private final RenderProperties properties;
+
+    public RenderWarmup(ThymeleafRenderer renderer, ScreenRegistry screens, RenderProperties properties) {
+        this.renderer = renderer;
+        this.screens = screens;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isWarmup()) {
+            renderer.warmUp(screens);
+        }
+    }
+}
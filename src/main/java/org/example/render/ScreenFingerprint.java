@@ -0,0 +1,53 @@
+package org.example.render;
+
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldValues;
+
+import java.util.List;
+
+/**
+ * 64-bit FNV-1a hash over alles wat de HTML van een scherm bepaalt, voor de ETag van de pagina.
+ */
+final class ScreenFingerprint {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    // separates values so "ab" + "c" and "a" + "bc" hash differently, and null from "null"
+    private static final char SEPARATOR = '\u001f';
+    private static final char NULL = '\u0000';
+
+    private long hash = OFFSET_BASIS;
+
+    private ScreenFingerprint() {
+    }
+
+    static String etag(String version, Class<?> screenType, String title, List<Field> fields, FieldValues values) {
+        ScreenFingerprint fingerprint = new ScreenFingerprint();
+        fingerprint.add(version).add(screenType.getName()).add(title);
+        for (Field field : fields) {
+            fingerprint.add(field.getName()).add(field.getType());
+            int slot = field.getSlot();
+            for (int i = 0; i < field.getSlotCount(); i++) {
+                fingerprint.add(slot < 0 || values == null ? null : values.get(slot + i));
+            }
+        }
+        return '"' + Long.toHexString(fingerprint.hash) + '"';
+    }
+
+    private ScreenFingerprint add(Object value) {
+        if (value == null) {
+            mix(NULL);
+        } else {
+            String s = value.toString();
+            for (int i = 0; i < s.length(); i++) {
+                mix(s.charAt(i));
+            }
+        }
+        mix(SEPARATOR);
+        return this;
+    }
+
+    private void mix(char c) {
+        hash = (hash ^ (c & 0xff)) * PRIME;
+        hash = (hash ^ (c >>> 8)) * PRIME;
+    }
+}
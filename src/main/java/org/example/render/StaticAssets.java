@@ -0,0 +1,148 @@
+package org.example.render;
+
+import org.example.ui.ContentHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asset-pipeline: leest de statische bestanden eenmalig in, fingerprint en comprimeert ze.
+ */
+@Component
+public class StaticAssets {
+    private static final Logger log = LoggerFactory.getLogger(StaticAssets.class);
+
+    public static final String PREFIX = "/assets/";
+    public static final List<String> DEFAULT_ASSETS = List.of("/css/styles.css", "/js/lookup-modal.js", "/js/htmx.min.js");
+
+    private static final String CLASSPATH_ROOT = "static";
+
+    private final boolean devMode;
+    private final Map<String, Asset> byPath = new LinkedHashMap<>();
+    private final Map<String, Asset> byUrl = new LinkedHashMap<>();
+    private final String version;
+
+    public StaticAssets() {
+        this(new RenderProperties());
+    }
+
+    @Autowired
+    public StaticAssets(RenderProperties properties) {
+        this(properties.isDevMode(), DEFAULT_ASSETS, StaticAssets.class.getClassLoader());
+    }
+
+    StaticAssets(boolean devMode, List<String> paths, ClassLoader classLoader) {
+        this.devMode = devMode;
+        for (String path : paths) {
+            byte[] content = read(classLoader, path);
+            if (content == null) {
+                log.info("Static asset {} not found on the classpath, it is linked without fingerprint", path);
+                continue;
+            }
+            Asset asset = new Asset(path, content, gzip(content), read(classLoader, path + ".br"));
+            byPath.put(path, asset);
+            byUrl.put(asset.getUrl(), asset);
+        }
+        StringBuilder hashes = new StringBuilder();
+        byPath.values().forEach(asset -> hashes.append(asset.getHash()));
+        this.version = ContentHash.of(hashes.toString());
+    }
+
+    /**
+     * @param path the public path of a static file, e.g. {@code /css/styles.css}
+     * @return the fingerprinted URL, or the path itself when the file is not part of the pipeline
+     */
+    public String url(String path) {
+        if (devMode) return path;
+        Asset asset = byPath.get(path);
+        return asset != null ? asset.getUrl() : path;
+    }
+
+    public Asset find(String url) {
+        return byUrl.get(url);
+    }
+
+    // changes when any of the assets changes, e.g. for ETags of pages that link them
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isDevMode() {
+        return devMode;
+    }
+
+    private static byte[] read(ClassLoader classLoader, String path) {
+        try (InputStream in = classLoader.getResourceAsStream(CLASSPATH_ROOT + path)) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read static asset " + path, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 3 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // tiny files can grow by the gzip header, serve those uncompressed
+        return bytes.size() < content.length ? bytes.toByteArray() : null;
+    }
+
+    /**
+     * Eén ingelezen bestand met zijn voorgecomprimeerde varianten. {@code gzip} en {@code brotli} zijn
+     * null wanneer die variant niet beschikbaar is.
+     */
+    public static final class Asset {
+        private final String path;
+        private final String hash;
+        private final String url;
+        private final byte[] content;
+        private final byte[] gzip;
+        private final byte[] brotli;
+
+        Asset(String path, byte[] content, byte[] gzip, byte[] brotli) {
+            this.path = path;
+            this.hash = ContentHash.of(content);
+            this.url = PREFIX + hash + path;
+            this.content = content;
+            this.gzip = gzip;
+            this.brotli = brotli;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public byte[] getBrotli() {
+            return brotli;
+        }
+    }
+}
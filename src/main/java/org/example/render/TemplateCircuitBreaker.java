@@ -0,0 +1,121 @@
+package org.example.render;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker rond het Thymeleaf-pad: na herhaalde fouten gaan renders meteen naar de fallback renderer.
+ */
+public class TemplateCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final LongSupplier nanoClock;
+
+    private volatile State state = State.CLOSED;
+    private volatile int consecutiveFailures;
+    private long totalFailures;
+    private long shortCircuited;
+    private long backoffNanos;
+    private long retryAt;
+    private String lastFailure;
+
+    public TemplateCircuitBreaker(int failureThreshold, Duration initialBackoff, Duration maxBackoff) {
+        this(failureThreshold, initialBackoff, maxBackoff, System::nanoTime);
+    }
+
+    TemplateCircuitBreaker(int failureThreshold, Duration initialBackoff, Duration maxBackoff, LongSupplier nanoClock) {
+        if (failureThreshold < 1) throw new IllegalArgumentException("failureThreshold must be at least 1");
+        this.failureThreshold = failureThreshold;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = Math.max(initialBackoffNanos, maxBackoff.toNanos());
+        this.nanoClock = nanoClock;
+        this.backoffNanos = initialBackoffNanos;
+    }
+
+    /**
+     * @return true when the template engine may be tried for this render; false means go straight
+     * to the fallback renderer
+     */
+    public boolean allowTemplate() {
+        // lock-free fast path for the healthy case
+        if (state == State.CLOSED) return true;
+        synchronized (this) {
+            if (state == State.OPEN && nanoClock.getAsLong() - retryAt >= 0) {
+                // let exactly one probe through, everything else keeps using the fallback
+                state = State.HALF_OPEN;
+                return true;
+            }
+            if (state == State.CLOSED) return true;
+            shortCircuited++;
+            return false;
+        }
+    }
+
+    /**
+     * @return true when this success closed a previously open circuit
+     */
+    public boolean recordSuccess() {
+        if (state == State.CLOSED && consecutiveFailures == 0) return false;
+        synchronized (this) {
+            boolean wasOpen = state != State.CLOSED;
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            backoffNanos = initialBackoffNanos;
+            return wasOpen;
+        }
+    }
+
+    /**
+     * @return true when this failure (re)opened the circuit
+     */
+    public synchronized boolean recordFailure(Throwable failure) {
+        totalFailures++;
+        consecutiveFailures++;
+        lastFailure = failure.toString();
+        if (state == State.HALF_OPEN) {
+            backoffNanos = Math.min(backoffNanos * 2, maxBackoffNanos);
+            open();
+            return true;
+        }
+        if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            backoffNanos = initialBackoffNanos;
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        retryAt = nanoClock.getAsLong() + backoffNanos;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getTotalFailures() {
+        return totalFailures;
+    }
+
+    // renders that went straight to the fallback because the circuit was open
+    public synchronized long getShortCircuitedCount() {
+        return shortCircuited;
+    }
+
+    public synchronized Duration getCurrentBackoff() {
+        return Duration.ofNanos(backoffNanos);
+    }
+
+    public synchronized String getLastFailure() {
+        return lastFailure;
+    }
+}
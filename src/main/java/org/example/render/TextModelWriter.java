@@ -0,0 +1,65 @@
+package org.example.render;
+
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldErrors;
+import org.example.ui.field.FieldValues;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IModelFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writer die wat erin geschreven wordt als ruwe tekst-events aan een Thymeleaf model toevoegt.
+ */
+final class TextModelWriter extends Writer {
+    private final IModel model;
+    private final IModelFactory modelFactory;
+
+    private TextModelWriter(IModel model, IModelFactory modelFactory) {
+        this.model = model;
+        this.modelFactory = modelFactory;
+    }
+
+    static IModel render(ITemplateContext context, RenderPlan plan, List<Field> fields, FieldValues values, FieldErrors errors) {
+        IModel model = context.getModelFactory().createModel();
+        try {
+            plan.write(fields, values, errors, new TextModelWriter(model, context.getModelFactory()));
+        } catch (IOException e) {
+            // only the model is written to, this never does I/O
+            throw new UncheckedIOException(e);
+        }
+        return model;
+    }
+
+    @Override
+    public void write(String str) {
+        if (!str.isEmpty()) model.add(modelFactory.createText(str));
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        write(str.substring(off, off + len));
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        write(new String(cbuf, off, len));
+    }
+
+    @Override
+    public void write(int c) {
+        write(String.valueOf((char) c));
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -1,237 +1,484 @@
 package org.example.render;
 
+import org.example.lookup.ReferenceResolver;
 import org.example.ui.AbstractScreen;
+import org.example.ui.ContentHash;
+import org.example.ui.ScreenRegistry;
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldErrors;
+import org.example.ui.field.FieldValues;
 import org.example.ui.form.Form;
 import org.example.ui.form.FormBuilder;
-import org.example.ui.field.Field;
-import org.example.ui.field.TextField;
-import org.example.ui.field.NumberField;
-import org.example.ui.field.DateField;
-import org.example.ui.field.SelectField;
 import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.cache.StandardCacheManager;
 import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
-import org.thymeleaf.templateresolver.ITemplateResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import org.example.ui.field.ReferenceField;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class ThymeleafRenderer {
     private static final Logger log = LoggerFactory.getLogger(ThymeleafRenderer.class);
+    // part of every ETag: the same on every instance of a release, changes with the templates or the version
+    private static final String RELEASE = releaseVersion();
     private final TemplateEngine engine;
+    private final TemplateCircuitBreaker circuitBreaker;
+    private final RenderPlanCache plans;
+    private final StaticAssets assets;
+    private final ReferenceResolver references;
+    private final RenderMetrics metrics;
+    private final boolean serverTiming;
+    private final IconRegistry icons;
+    // frozen forms of screens with a static layout, per screen class
+    private final Map<Class<?>, Form> layouts = new ConcurrentHashMap<>();
 
     public ThymeleafRenderer() {
-        ITemplateResolver resolver = new ClassLoaderTemplateResolver();
-        ((ClassLoaderTemplateResolver) resolver).setPrefix("/templates/");
-        ((ClassLoaderTemplateResolver) resolver).setSuffix(".html");
-        ((ClassLoaderTemplateResolver) resolver).setTemplateMode("HTML");
-        ((ClassLoaderTemplateResolver) resolver).setCharacterEncoding("UTF-8");
-        ((ClassLoaderTemplateResolver) resolver).setCacheable(false);
-
-        engine = new TemplateEngine();
-        engine.setTemplateResolver(resolver);
+        this(builder());
+    }
+
+    // Runs on the application's shared engine (see RenderConfig), the same one the MVC view resolver uses
+    @Autowired
+    public ThymeleafRenderer(SpringTemplateEngine engine, RenderProperties properties, IconRegistry icons, StaticAssets assets,
+                             ReferenceResolver references, RenderMetrics metrics, ScreenRegistry screens) {
+        this(builder().engine(engine).properties(properties).icons(icons).assets(assets).references(references)
+                .metrics(metrics).screens(screens));
     }
 
     // Additional constructor to support unit testing with a mock TemplateEngine
     ThymeleafRenderer(TemplateEngine engine) {
-        this.engine = engine;
+        this(builder().engine(engine));
+    }
+
+    private ThymeleafRenderer(Builder builder) {
+        RenderProperties properties = builder.properties;
+        this.icons = builder.icons != null ? builder.icons : new IconRegistry();
+        this.engine = builder.engine != null ? builder.engine : createEngine(properties, icons);
+        this.circuitBreaker = builder.circuitBreaker != null ? builder.circuitBreaker : properties.getCircuitBreaker().create();
+        this.assets = builder.assets != null ? builder.assets : new StaticAssets(properties);
+        this.references = builder.references != null ? builder.references : new ReferenceResolver();
+        this.metrics = builder.metrics != null ? builder.metrics : new RenderMetrics();
+        this.serverTiming = properties.isServerTiming();
+        ScreenRegistry screens = builder.screens != null ? builder.screens : new ScreenRegistry();
+        this.plans = new RenderPlanCache(icons, screens::fragmentUrl);
+    }
+
+    // for use outside Spring (tests, benchmarks); whatever is not set gets its default
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Hash of the templates plus the Implementation-Version of the jar (absent when run from the IDE), so render
+    // code changes between releases are covered as well
+    static String releaseVersion() {
+        StringBuilder release = new StringBuilder(64);
+        release.append(ThymeleafRenderer.class.getPackage().getImplementationVersion());
+        try {
+            Resource[] templates = new PathMatchingResourcePatternResolver(ThymeleafRenderer.class.getClassLoader())
+                    .getResources("classpath:/templates/**/*.html");
+            Arrays.sort(templates, Comparator.comparing(Resource::getDescription));
+            for (Resource template : templates) {
+                try (InputStream in = template.getInputStream()) {
+                    release.append('-').append(ContentHash.of(in.readAllBytes()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the templates", e);
+        }
+        return ContentHash.of(release.toString());
+    }
+
+    // SpEL instead of OGNL; expressions that allow it are compiled to bytecode after a few evaluations
+    static SpringTemplateEngine createEngine(RenderProperties properties, IconRegistry icons) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("/templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode("HTML");
+        resolver.setCharacterEncoding("UTF-8");
+        // dev mode re-reads templates on every render so edits show up without a restart
+        resolver.setCacheable(!properties.isDevMode());
+        if (properties.getTemplateCacheTtl() != null) {
+            resolver.setCacheTTLMs(properties.getTemplateCacheTtl().toMillis());
+        }
+
+        StandardCacheManager cacheManager = new StandardCacheManager();
+        cacheManager.setTemplateCacheMaxSize(properties.isDevMode() ? 0 : properties.getTemplateCacheSize());
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setEnableSpringELCompiler(true);
+        engine.setTemplateResolver(resolver);
+        engine.addDialect(new UiDialect(icons));
+        engine.setCacheManager(cacheManager);
+        return engine;
     }
 
     // Public entry keeps wildcard for callers, delegate to a typed helper to capture the wildcard
     public String render(AbstractScreen<?> screen) {
-        return renderTyped(screen);
+        StringWriter out = new StringWriter(8192);
+        try {
+            renderTyped(screen, null, RenderTrace.untimed(), out);
+        } catch (IOException e) {
+            // a StringWriter never throws
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    // Streams the page into the given writer (typically the servlet response writer). The head section
+    // is flushed as soon as it is complete so the browser can start loading styles and scripts.
+    public void render(AbstractScreen<?> screen, Writer out) throws IOException {
+        renderTyped(screen, null, RenderTrace.untimed(), out);
+    }
+
+    // Same as render, with the errors of a submission shown next to their fields
+    public void render(AbstractScreen<?> screen, FieldErrors errors, Writer out) throws IOException {
+        renderTyped(screen, errors, RenderTrace.untimed(), out);
+    }
+
+    // Same as render, with the phases recorded in the given trace (see newTrace)
+    public void render(AbstractScreen<?> screen, FieldErrors errors, RenderTrace trace, Writer out) throws IOException {
+        renderTyped(screen, errors, trace, out);
+    }
+
+    // A timed trace when ui.render.server-timing is on, the shared untimed one otherwise
+    public RenderTrace newTrace() {
+        return serverTiming ? RenderTrace.timed() : RenderTrace.untimed();
+    }
+
+    // Renders only the named fields of the screen as form items marked hx-swap-oob, so htmx swaps each
+    // of them into the page by id. Unknown names are skipped; returns the number of fields written.
+    public int renderFields(AbstractScreen<?> screen, Collection<String> fieldNames, FieldErrors errors, Writer out)
+            throws IOException {
+        return renderFieldsTyped(screen, fieldNames, errors, out);
+    }
+
+    // Renders one row of the screen's form (see Form#getRowInfo) marked hx-swap-oob, so htmx swaps it
+    // into the page by its id row-<index>. Returns false, without writing, when there is no such row.
+    public boolean renderRow(AbstractScreen<?> screen, int rowIndex, FieldErrors errors, Writer out) throws IOException {
+        return renderRowTyped(screen, rowIndex, errors, out);
+    }
+
+    // Body of one named form section with hx-swap-oob, for the placeholder of a deferred section;
+    // false when the form has no section with that name
+    public boolean renderSection(AbstractScreen<?> screen, String name, FieldErrors errors, Writer out) throws IOException {
+        return renderSectionTyped(screen, name, errors, out);
+    }
+
+    // Strong ETag for the page that render would produce for this screen, computed from the screen class, the
+    // field values (after resolving reference names) and the versions of icons, assets, templates and the
+    // application. Null in dev mode, where templates may change at any time. Rendering the same screen afterwards does not look up the reference names again.
+    public String etag(AbstractScreen<?> screen) {
+        return etag(screen, RenderTrace.untimed());
+    }
+
+    // Same as etag, with building the form and resolving the references recorded in the trace; the render
+    // that follows adds its (by then mostly cached) work to the same phases
+    public String etag(AbstractScreen<?> screen, RenderTrace trace) {
+        return assets.isDevMode() ? null : etagTyped(screen, trace);
+    }
+
+    // Renders a single template fragment (e.g. lookup results) with the shared engine. There is no
+    // simple-HTML fallback for fragments, failures propagate to the caller.
+    public String renderFragment(String template, String fragment, Map<String, Object> variables) {
+        Context ctx = new Context();
+        ctx.setVariables(variables);
+        return engine.process(template, Set.of(fragment), ctx);
+    }
+
+    // Renders every registered screen once so template parsing, plan compilation and JIT warm-up
+    // happen before the first real request
+    public void warmUp(ScreenRegistry screens) {
+        long start = System.nanoTime();
+        for (String name : screens.getNames()) {
+            try {
+                render(screens.create(name));
+            } catch (RuntimeException e) {
+                log.warn("Warm-up of screen '{}' failed: {}", name, e.toString());
+            }
+        }
+        log.info("Warmed up {} screen(s) in {} ms", screens.getNames().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private <T extends FieldValues> int renderFieldsTyped(AbstractScreen<T> screen, Collection<String> fieldNames,
+                                                          FieldErrors errors, Writer out) throws IOException {
+        T dto = screen.getDto();
+        Form form = formFor(screen, dto);
+        List<Field> fields = new ArrayList<>(fieldNames.size());
+        for (String name : fieldNames) {
+            Field field = form.find(name);
+            if (field != null) fields.add(field);
+        }
+        references.resolve(fields, dto);
+        for (Field field : fields) {
+            plans.outOfBandPlanFor(field).write(List.of(field), dto, errors, out);
+        }
+        out.flush();
+        return fields.size();
+    }
+
+    private <T extends FieldValues> boolean renderRowTyped(AbstractScreen<T> screen, int rowIndex, FieldErrors errors,
+                                                           Writer out) throws IOException {
+        T dto = screen.getDto();
+        Form form = formFor(screen, dto);
+        List<Form.Row> rows = form.getRowInfo();
+        if (rowIndex < 0 || rowIndex >= rows.size()) return false;
+        Form.Row row = rows.get(rowIndex);
+        references.resolve(row.fields(), dto);
+        plans.outOfBandPlanFor(screen.getClass(), form, row).write(row.fields(), dto, errors, out);
+        out.flush();
+        return true;
+    }
+
+    private <T extends FieldValues> boolean renderSectionTyped(AbstractScreen<T> screen, String name, FieldErrors errors,
+                                                               Writer out) throws IOException {
+        T dto = screen.getDto();
+        Form form = formFor(screen, dto);
+        Form.Section section = form.findSection(name);
+        if (section == null) return false;
+        references.resolve(section.fields(), dto);
+        plans.sectionPlanFor(screen.getClass(), form, section).write(section.fields(), dto, errors, out);
+        out.flush();
+        return true;
+    }
+
+    private <T extends FieldValues> String etagTyped(AbstractScreen<T> screen, RenderTrace trace) {
+        Class<?> screenType = screen.getClass();
+        T dto = screen.getDto();
+        RenderTrace.Phase phase = trace.begin(RenderTrace.FORM, screenType);
+        // deferred sections are fetched separately, the page only depends on the initial fields
+        List<Field> fields = formFor(screen, dto).getInitialFields();
+        phase.end(fields.size(), 0);
+        phase = trace.begin(RenderTrace.LOOKUPS, screenType);
+        references.resolve(fields, dto);
+        phase.end(fields.size(), 0);
+        String version = icons.getVersion() + '-' + assets.getVersion() + '-' + RELEASE;
+        return ScreenFingerprint.etag(version, screen.getClass(), screen.getTitle(), fields, dto);
+    }
+
+    private <T extends FieldValues> Form formFor(AbstractScreen<T> screen, T dto) {
+        return screen.isLayoutStatic()
+                ? layouts.computeIfAbsent(screen.getClass(), type -> screen.createForm(new FormBuilder(), dto).freeze())
+                : screen.createForm(new FormBuilder(), dto);
     }
 
     // Helper that captures the screen's generic type so createForm and getDto use the same T
-    @SuppressWarnings("unchecked")
-    private <T> String renderTyped(AbstractScreen<T> screen) {
-        FormBuilder builder = new FormBuilder();
-        // explicit unchecked cast to satisfy compilers that complain about wildcard capture
-        T dto = (T) screen.getDto();
-        Form form = screen.createForm(builder, dto);
-
-        // First try the Thymeleaf template rendering (keeps original behavior)
-        try {
-            Context ctx = new Context();
-            ctx.setVariable("title", screen.getTitle());
-            ctx.setVariable("form", form);
-            String result = engine.process("screen", ctx);
-            log.debug("Rendered screen '{}' using Thymeleaf template", screen.getTitle());
-            return result;
-        } catch (Throwable t) {
-            // Catch everything (including NoClassDefFoundError / LinkageError)
-            log.warn("Thymeleaf rendering failed, falling back to simple HTML renderer: {}", t.toString());
-            return renderSimpleHtml(screen.getTitle(), form);
-        }
-    }
-
-    private String renderSimpleHtml(String title, Form form) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("<!doctype html><html><head><meta charset=\"utf-8\"/>\n");
-        sb.append("<meta name=\"viewport\" content=\"width=device-width,initial-scale=1\"/>\n");
-        sb.append("<title>").append(escape(title)).append("</title>\n");
-        // link the same stylesheet used by templates so fallback is styled
-        sb.append("<link rel=\"stylesheet\" href=\"/css/styles.css?v=20251126\" />\n");
-        sb.append("</head><body>\n");
-        sb.append("<div class=\"page-container\">\n");
-        sb.append("<header class=\"page-header\"><h1>").append(escape(title)).append("</h1></header>\n");
-        sb.append("<main class=\"page-main\">\n");
-        sb.append("<div class=\"form-card\">\n");
-        sb.append("<form method=\"post\" class=\"form-body\">\n");
-        sb.append("<div class=\"form-rows\">\n");
-
-        List<List<Field>> rows = form.getRows();
-        for (List<Field> row : rows) {
-            sb.append("<div class=\"form-row\" style=\"grid-template-columns: repeat("+form.getColumns()+", 1fr)\">\n");
-            for (Field f : row) {
-                sb.append("<div class=\"form-item\">\n");
-                sb.append("<label class=\"form-label\">").append(escape(f.getLabel())).append("</label>\n");
-
-                String icon = f.getIcon();
-                boolean hasIcon = icon != null && !icon.isEmpty();
-
-                if (f instanceof TextField) {
-                    TextField tf = (TextField) f;
-                    if (hasIcon) sb.append("<div class=\"input-with-icon\">\n");
-                    if (hasIcon) sb.append("<span class=\"input-icon\">\n").append(getSvgForIcon(icon)).append("</span>");
-                    sb.append("<input type=\"text\" class=\"input\" name=\"").append(escape(tf.getName())).append("\"");
-                    if (tf.getValue() != null) sb.append(" value=\"").append(escape(tf.getValue())).append("\"");
-                    sb.append(" />\n");
-                    if (hasIcon) sb.append("</div>\n");
-                } else if (f instanceof NumberField) {
-                    NumberField nf = (NumberField) f;
-                    if (hasIcon) sb.append("<div class=\"input-with-icon\">\n");
-                    if (hasIcon) sb.append("<span class=\"input-icon\">\n").append(getSvgForIcon(icon)).append("</span>");
-                    sb.append("<input type=\"number\" class=\"input\" name=\"").append(escape(nf.getName())).append("\"");
-                    if (nf.getValue() != null) sb.append(" value=\"").append(nf.getValue()).append("\"");
-                    if (nf.getMin() != null) sb.append(" min=\"").append(nf.getMin()).append("\"");
-                    if (nf.getMax() != null) sb.append(" max=\"").append(nf.getMax()).append("\"");
-                    sb.append(" />\n");
-                    if (hasIcon) sb.append("</div>\n");
-                } else if (f instanceof DateField) {
-                    DateField df = (DateField) f;
-                    if (hasIcon) sb.append("<div class=\"input-with-icon\">\n");
-                    if (hasIcon) sb.append("<span class=\"input-icon\">\n").append(getSvgForIcon(icon)).append("</span>");
-                    sb.append("<input type=\"date\" class=\"input\" name=\"").append(escape(df.getName())).append("\"");
-                    if (df.getValue() != null) sb.append(" value=\"").append(escape(df.getValue())).append("\"");
-                    sb.append(" />\n");
-                    if (hasIcon) sb.append("</div>\n");
-                } else if (f instanceof SelectField) {
-                    SelectField sf = (SelectField) f;
-                    sb.append("<div>");
-                    sb.append("<select class=\"input\" name=\"").append(escape(sf.getName())).append("\">\n");
-                    for (SelectField.Option opt : sf.getOptions()) {
-                        sb.append("<option value=\"").append(escape(opt.getId())).append("\"");
-                        if (opt.getId().equals(sf.getSelectedId())) sb.append(" selected");
-                        sb.append(">").append(escape(opt.getLabel())).append("</option>\n");
-                    }
-                    sb.append("</select>");
-                    sb.append("</div>\n");
-                } else if (f instanceof ReferenceField) {
-                    ReferenceField rf = (ReferenceField) f;
-                    sb.append("<div class=\"reference-field\" style=\"display:flex;gap:8px;align-items:center;\">\n");
-                    sb.append("<input type=\"text\" class=\"input\" name=\"")
-                      .append(escape(rf.getName())).append("_code\"")
-                      .append(" value=\"").append(escape(nullToEmpty(rf.getCode()))).append("\"")
-                      .append(" placeholder=\"code\" style=\"width:120px;\"")
-                      .append(" data-lookup-url=\"").append(escape(nullToEmpty(rf.getLookupUrl()))).append("\"")
-                      .append(" />\n");
-                    sb.append("<span class=\"reference-name\">").append(escape(nullToEmpty(rf.getDisplayName()))).append("</span>\n");
-                    sb.append("<button type=\"button\" class=\"btn icon\" title=\"Zoeken\" aria-label=\"Zoek\" data-lookup-url=\"")
-                      .append(escape(nullToEmpty(rf.getLookupUrl()))).append("\">");
-                    sb.append("<svg width=\"16\" height=\"16\" viewBox=\"0 0 24 24\" fill=\"none\" xmlns=\"http://www.w3.org/2000/svg\"><path d=\"M21 21l-4.35-4.35M10 18a8 8 0 100-16 8 8 0 000 16z\" stroke=\"#374151\" stroke-width=\"1.5\" stroke-linecap=\"round\" stroke-linejoin=\"round\"/></svg>");
-                    sb.append("</button>\n");
-                    sb.append("<input type=\"hidden\" name=\"").append(escape(rf.getName())).append("\" value=\"")
-                      .append(escape(nullToEmpty(rf.getIdValue()))).append("\" />\n");
-                    sb.append("</div>\n");
-                } else {
-                    sb.append("<input type=\"text\" class=\"input\" name=\"").append(escape(f.getName())).append("\" />\n");
-                }
+    private <T extends FieldValues> void renderTyped(AbstractScreen<T> screen, FieldErrors errors, RenderTrace trace, Writer out)
+            throws IOException {
+        Class<?> screenType = screen.getClass();
+        RenderMetrics.ScreenMeters meters = metrics.forScreen(screenType);
+        T dto = screen.getDto();
+        RenderTrace.Phase phase = trace.begin(RenderTrace.FORM, screenType);
+        Form form = formFor(screen, dto);
+        int fieldCount = form.getFields().size();
+        meters.recordForm(phase.end(fieldCount, 0));
+        // a re-render after a failed submit shows every section, so no submitted value gets lost
+        boolean deferSections = errors == null || errors.isEmpty();
+        phase = trace.begin(RenderTrace.LOOKUPS, screenType);
+        // one batched lookup per provider instead of one per reference field
+        references.resolve(deferSections ? form.getInitialFields() : form.getFields(), dto);
+        phase.end(fieldCount, 0);
+        RenderPlan plan = plans.planFor(screenType, form, deferSections);
 
-                sb.append("</div>\n");
+        HeadFlushingWriter writer = new HeadFlushingWriter(out);
+        boolean headSent = false;
+        if (circuitBreaker.allowTemplate()) {
+            phase = trace.begin(RenderTrace.TEMPLATE, screenType);
+            try {
+                Context ctx = new Context();
+                ctx.setVariable("title", screen.getTitle());
+                ctx.setVariable("form", form);
+                ctx.setVariable(UiDialect.PLAN_VARIABLE, plan);
+                ctx.setVariable(UiDialect.VALUES_VARIABLE, dto);
+                ctx.setVariable(UiDialect.ERRORS_VARIABLE, errors);
+                ctx.setVariable("assets", assets);
+                engine.process("screen", ctx, writer);
+                if (circuitBreaker.recordSuccess()) {
+                    log.info("Thymeleaf rendering works again, closing the fallback circuit");
+                }
+                log.debug("Rendered screen '{}' using Thymeleaf template", screen.getTitle());
+                writer.flush();
+                meters.recordTemplate(phase.end(fieldCount, writer.getWritten()));
+                meters.recordOutput(writer.getWritten());
+                return;
+            } catch (Throwable t) {
+                // Catch everything (including NoClassDefFoundError / LinkageError)
+                boolean circuitOpened = circuitBreaker.recordFailure(t);
+                if (!writer.canDiscard()) {
+                    // the form already went out, the fallback can't replace it anymore
+                    throw new IllegalStateException("Thymeleaf rendering failed after the form was sent", t);
+                }
+                logTemplateFailure(t, circuitOpened);
+                // the failed attempt still shows up as a template phase, followed by the fallback
+                phase.end(fieldCount, 0);
+                headSent = writer.isCommitted();
+                writer.discard();
+                meters.recordFallback(t.getClass());
             }
-            sb.append("</div>\n");
+        } else {
+            meters.recordCircuitOpen();
         }
+        phase = trace.begin(RenderTrace.FALLBACK, screenType);
+        if (deferSections) {
+            // the fallback page does not load htmx, so it shows every section up front
+            references.resolve(form.getFields(), dto);
+            plan = plans.planFor(screenType, form, false);
+        }
+        if (headSent) {
+            // the template's head is already on its way, only the body is replaced
+            renderSimpleBody(screen.getTitle(), form, dto, errors, plan, writer);
+        } else {
+            renderSimpleHtml(screen.getTitle(), form, dto, errors, plan, writer);
+        }
+        writer.flush();
+        phase.end(fieldCount, writer.getWritten());
+        meters.recordOutput(writer.getWritten());
+    }
+
+    private void logTemplateFailure(Throwable t, boolean circuitOpened) {
+        if (circuitOpened) {
+            log.warn("Thymeleaf rendering failed {} time(s) in a row, using the simple HTML renderer for the next {}: {}",
+                    circuitBreaker.getConsecutiveFailures(), circuitBreaker.getCurrentBackoff(), t.toString());
+        } else {
+            log.warn("Thymeleaf rendering failed, falling back to simple HTML renderer: {}", t.toString());
+        }
+    }
+
+    public TemplateCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    // package-private for the benchmarks that compare it with the template path
+    void renderSimpleHtml(String title, Form form, FieldValues values, FieldErrors errors, RenderPlan plan, Writer out)
+            throws IOException {
+        out.append("<!doctype html><html><head><meta charset=\"utf-8\"/>\n");
+        out.append("<meta name=\"viewport\" content=\"width=device-width,initial-scale=1\"/>\n");
+        out.append("<title>");
+        HtmlEscaper.writeText(out, title);
+        out.append("</title>\n");
+        // link the same fingerprinted stylesheet used by templates so fallback is styled
+        out.append("<link rel=\"stylesheet\" href=\"").append(assets.url("/css/styles.css")).append("\" />\n");
+        out.append("</head>");
+        renderSimpleBody(title, form, values, errors, plan, out);
+    }
+
+    private void renderSimpleBody(String title, Form form, FieldValues values, FieldErrors errors, RenderPlan plan, Writer out)
+            throws IOException {
+        out.append("<body>\n");
+        out.append("<div class=\"page-container\">\n");
+        out.append("<header class=\"page-header\"><h1>");
+        HtmlEscaper.writeText(out, title);
+        out.append("</h1></header>\n");
+        out.append("<main class=\"page-main\">\n");
+        out.append("<div class=\"form-card\">\n");
+        out.append("<form method=\"post\" class=\"form-body\">\n");
+        plan.write(form.getFields(), values, errors, out);
 
-        sb.append("</div>\n");
-        sb.append("<div class=\"form-actions\"><button type=\"submit\" class=\"btn primary\">Submit</button></div>\n");
-        sb.append("</form>\n");
-        sb.append("</div>\n");
-        sb.append("</main>\n");
-        sb.append("</div>\n");
+        out.append("<div class=\"form-actions\"><button type=\"submit\" class=\"btn primary\">Submit</button></div>\n");
+        out.append("</form>\n");
+        out.append("</div>\n");
+        out.append("</main>\n");
+        out.append("</div>\n");
 
         // Modal markup for fallback mode
-        sb.append("<div id=\"lookup-overlay\" class=\"lookup-overlay\" aria-hidden=\"true\" hidden></div>\n");
-        sb.append("<div id=\"lookup-modal\" class=\"lookup-modal\" role=\"dialog\" aria-modal=\"true\" aria-labelledby=\"lookup-title\" hidden>\n");
-        sb.append("  <div class=\"lookup-header\">\n");
-        sb.append("    <h3 id=\"lookup-title\" class=\"lookup-title\">Zoek waarde</h3>\n");
-        sb.append("    <button type=\"button\" class=\"btn secondary lookup-close\" aria-label=\"Sluiten\">×</button>\n");
-        sb.append("  </div>\n");
-        sb.append("  <div class=\"lookup-body\">\n");
-        sb.append("    <input id=\"lookup-input\" class=\"input\" type=\"text\" placeholder=\"Typ om te filteren...\" />\n");
-        sb.append("    <ul id=\"lookup-list\" class=\"lookup-list\" role=\"listbox\" aria-label=\"Zoekresultaten\"></ul>\n");
-        sb.append("  </div>\n");
-        sb.append("  <div class=\"lookup-footer\">\n");
-        sb.append("    <button type=\"button\" class=\"btn secondary lookup-cancel\">Annuleer</button>\n");
-        sb.append("  </div>\n");
-        sb.append("</div>\n");
-
-        // Inline JS for modal behavior in fallback
-        sb.append("<script>(function(){\n"
-                + "var overlay=document.getElementById('lookup-overlay');\n"
-                + "var modal=document.getElementById('lookup-modal');\n"
-                + "var inputEl=document.getElementById('lookup-input');\n"
-                + "var listEl=document.getElementById('lookup-list');\n"
-                + "function show(el){el.hidden=false;el.setAttribute('aria-hidden','false');}\n"
-                + "function hide(el){el.hidden=true;el.setAttribute('aria-hidden','true');}\n"
-                + "var ctx=null;\n"
-                + "function openModal(c){ctx=c;inputEl.value=(c.codeInput&&c.codeInput.value)||'';render([]);show(overlay);show(modal);setTimeout(function(){inputEl.focus();inputEl.select();},0);fetchAndRender(inputEl.value);}\n"
-                + "function closeModal(){hide(modal);hide(overlay);if(ctx&&ctx.codeInput){ctx.codeInput.focus();}ctx=null;}\n"
-                + "function render(items){listEl.innerHTML='';items.forEach(function(it){var li=document.createElement('li');li.className='lookup-item';li.setAttribute('role','option');li.tabIndex=0;li.dataset.id=it.id||'';li.dataset.code=it.code||'';li.dataset.name=it.name||'';li.textContent=(it.code?it.code+' — ':'')+(it.name||'');li.addEventListener('click',function(){select(li);});li.addEventListener('keydown',function(e){if(e.key==='Enter'){select(li);}});listEl.appendChild(li);});}\n"
-                + "function fetchAndRender(q){if(!ctx||!ctx.url)return;var u=ctx.url+'?code='+encodeURIComponent(q||'');fetch(u).then(function(r){return r.ok?r.json():[];}).then(function(list){render(Array.isArray(list)?list:[]);}).catch(function(){render([]);});}\n"
-                + "var t=null;inputEl.addEventListener('input',function(){clearTimeout(t);var q=this.value;t=setTimeout(function(){fetchAndRender(q);},180);});\n"
-                + "function select(li){if(!ctx)return;var code=li.dataset.code||'';var name=li.dataset.name||'';var id=li.dataset.id||code||'';if(ctx.codeInput)ctx.codeInput.value=code;if(ctx.nameSpan)ctx.nameSpan.textContent=name;if(ctx.hidden)ctx.hidden.value=id;closeModal();}\n"
-                + "document.addEventListener('click',function(e){var btn=e.target.closest('button.btn.icon[data-lookup-url]');if(btn){var w=btn.closest('.reference-field');if(!w)return;var code=w.querySelector('input.input[data-lookup-url]')||w.querySelector('input.input');var name=w.querySelector('.reference-name');var hid=w.querySelector('input[type=\"hidden\"]');var url=btn.getAttribute('data-lookup-url')||(code&&code.getAttribute('data-lookup-url'));if(url){openModal({url:url,wrapper:w,codeInput:code,nameSpan:name,hidden:hid});}}});\n"
-                + "Array.prototype.slice.call(document.querySelectorAll('.lookup-close,.lookup-cancel')).forEach(function(b){b.addEventListener('click',closeModal);});\n"
-                + "overlay.addEventListener('click',closeModal);\n"
-                + "document.addEventListener('keydown',function(e){if(e.key==='Escape'&&!modal.hidden){closeModal();}});\n"
-                + "// Submit handler: bouw DTO en log naar console\n"
-                + "var form=document.querySelector('form.form-body');\n"
-                + "if(form){form.addEventListener('submit',function(ev){ev.preventDefault();var dto={};\n"
-                + "var fields=Array.prototype.slice.call(form.querySelectorAll('input, select, textarea'));\n"
-                + "var handled={};\n"
-                + "fields.forEach(function(el){if(el.type==='hidden'){var name=el.name;var w=el.closest('.reference-field');if(w){var code=w.querySelector('input.input[name$=\"_code\"]');var nm=w.querySelector('.reference-name');dto[name]={id:el.value||'',code:code?code.value:'',name:nm?nm.textContent:''};handled[name]=true;handled[name+'_code']=true;}}});\n"
-                + "fields.forEach(function(el){if(!el.name||handled[el.name])return;if(el.type==='hidden')return;dto[el.name]=el.value;});\n"
-                + "try{console.log('DTO submitted:',dto);console.log('DTO (json):',JSON.stringify(dto,null,2));}catch(e){console.log('DTO submitted (raw):',dto);} });}\n"
-                + "})();</script>");
-
-        sb.append("</body></html>");
-        return sb.toString();
-    }
-
-    private String getSvgForIcon(String icon) {
-        if (icon == null) return "";
-        switch (icon) {
-            case "user":
-                return "<svg width='16' height='16' viewBox='0 0 24 24' fill='none' xmlns='http://www.w3.org/2000/svg'><path d='M12 12c2.7614 0 5-2.2386 5-5s-2.2386-5-5-5-5 2.2386-5 5 2.2386 5 5 5zM4 20.25C4 16.798 7.5817 14 12 14s8 2.798 8 6.25V22H4v-1.75z' stroke='#374151' stroke-width='1.2' stroke-linecap='round' stroke-linejoin='round'/></svg>";
-            case "calendar":
-                return "<svg width='16' height='16' viewBox='0 0 24 24' fill='none' xmlns='http://www.w3.org/2000/svg'><path d='M7 10h10M7 14h4M3 7h18M7 3v4M17 3v4' stroke='#374151' stroke-width='1.2' stroke-linecap='round' stroke-linejoin='round'/></svg>";
-            default:
-                return "<svg width='16' height='16' viewBox='0 0 24 24' fill='none' xmlns='http://www.w3.org/2000/svg'><path d='M3 12h18M12 3v18' stroke='#374151' stroke-width='1.2' stroke-linecap='round' stroke-linejoin='round'/></svg>";
-        }
-    }
-
-    private String escape(String s) {
-        if (s == null) return "";
-        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
-                .replace("\"", "&quot;").replace("'", "&#39;");
-    }
-
-    private String nullToEmpty(String s) {
+        out.append("<div id=\"lookup-overlay\" class=\"lookup-overlay\" aria-hidden=\"true\" hidden></div>\n");
+        out.append("<div id=\"lookup-modal\" class=\"lookup-modal\" role=\"dialog\" aria-modal=\"true\" aria-labelledby=\"lookup-title\" hidden>\n");
+        out.append("  <div class=\"lookup-header\">\n");
+        out.append("    <h3 id=\"lookup-title\" class=\"lookup-title\">Zoek waarde</h3>\n");
+        out.append("    <button type=\"button\" class=\"btn secondary lookup-close\" aria-label=\"Sluiten\">×</button>\n");
+        out.append("  </div>\n");
+        out.append("  <div class=\"lookup-body\">\n");
+        out.append("    <input id=\"lookup-input\" class=\"input\" type=\"text\" placeholder=\"Typ om te filteren...\" />\n");
+        out.append("    <ul id=\"lookup-list\" class=\"lookup-list\" role=\"listbox\" aria-label=\"Zoekresultaten\"></ul>\n");
+        out.append("  </div>\n");
+        out.append("  <div class=\"lookup-footer\">\n");
+        out.append("    <button type=\"button\" class=\"btn secondary lookup-cancel\">Annuleer</button>\n");
+        out.append("  </div>\n");
+        out.append("</div>\n");
+
+        // same cached lookup-modal module as the template page, no inline script per response
+        out.append("<script src=\"").append(assets.url("/js/lookup-modal.js")).append("\"></script>\n");
+        out.append("</body></html>");
+    }
+
+    static String nullToEmpty(String s) {
         return s == null ? "" : s;
     }
+
+    public static final class Builder {
+        private RenderProperties properties = new RenderProperties();
+        private IconRegistry icons;
+        private StaticAssets assets;
+        private ReferenceResolver references;
+        private RenderMetrics metrics;
+        private ScreenRegistry screens;
+        private TemplateEngine engine;
+        private TemplateCircuitBreaker circuitBreaker;
+
+        private Builder() {
+        }
+
+        public Builder properties(RenderProperties properties) {
+            this.properties = properties;
+            return this;
+        }
+
+        public Builder icons(IconRegistry icons) {
+            this.icons = icons;
+            return this;
+        }
+
+        public Builder assets(StaticAssets assets) {
+            this.assets = assets;
+            return this;
+        }
+
+        public Builder references(ReferenceResolver references) {
+            this.references = references;
+            return this;
+        }
+
+        public Builder metrics(RenderMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        // deferred form sections of the registered screens load through their fragment endpoints
+        public Builder screens(ScreenRegistry screens) {
+            this.screens = screens;
+            return this;
+        }
+
+        // a mock or pre-configured engine instead of one created from the properties
+        Builder engine(TemplateEngine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        Builder circuitBreaker(TemplateCircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        public ThymeleafRenderer build() {
+            return new ThymeleafRenderer(this);
+        }
+    }
 }
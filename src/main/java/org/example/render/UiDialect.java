@@ -0,0 +1,49 @@
+package org.example.render;
+
+import org.example.ui.field.FieldErrors;
+import org.example.ui.field.FieldValues;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.standard.StandardDialect;
+
+import java.util.Set;
+
+/**
+ * Thymeleaf dialect met {@code ui:form} en {@code ui:field}, die velden via {@link RenderPlan}s renderen.
+ */
+public class UiDialect extends AbstractProcessorDialect {
+    public static final String PREFIX = "ui";
+
+    /** context variable through which the renderer hands the cached plan of the current screen to {@code ui:form} */
+    static final String PLAN_VARIABLE = "uiRenderPlan";
+
+    /** context variable holding the {@link FieldValues} the fields are rendered with */
+    public static final String VALUES_VARIABLE = "values";
+
+    /** context variable holding the {@link FieldErrors} shown next to the fields, may be absent */
+    public static final String ERRORS_VARIABLE = "errors";
+
+    private final IconRegistry icons;
+    // plans of the fields placed one by one with ui:field
+    private final RenderPlanCache fieldPlans;
+
+    public UiDialect(IconRegistry icons) {
+        super("UI Framework", PREFIX, StandardDialect.PROCESSOR_PRECEDENCE);
+        this.icons = icons;
+        this.fieldPlans = new RenderPlanCache(icons);
+    }
+
+    @Override
+    public Set<IProcessor> getProcessors(String dialectPrefix) {
+        return Set.of(new UiFormTagProcessor(dialectPrefix, icons), new UiFieldTagProcessor(dialectPrefix, fieldPlans));
+    }
+
+    static FieldValues values(ITemplateContext context) {
+        return context.getVariable(VALUES_VARIABLE) instanceof FieldValues values ? values : null;
+    }
+
+    static FieldErrors errors(ITemplateContext context) {
+        return context.getVariable(ERRORS_VARIABLE) instanceof FieldErrors errors ? errors : null;
+    }
+}
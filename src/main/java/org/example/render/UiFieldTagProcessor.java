@@ -0,0 +1,38 @@
+package org.example.render;
+
+import org.example.ui.field.Field;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.util.List;
+
+/**
+ * {@code ui:field="${field}"}: rendert één veld als form-item, met dezelfde markup als in een volledig formulier.
+ */
+final class UiFieldTagProcessor extends AbstractAttributeTagProcessor {
+
+    private final RenderPlanCache plans;
+
+    UiFieldTagProcessor(String dialectPrefix, RenderPlanCache plans) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, "field", true, 1000, true);
+        this.plans = plans;
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag, AttributeName attributeName,
+                             String attributeValue, IElementTagStructureHandler structureHandler) {
+        Object value = StandardExpressions.getExpressionParser(context.getConfiguration())
+                .parseExpression(context, attributeValue)
+                .execute(context);
+        if (!(value instanceof Field field)) {
+            throw new IllegalArgumentException("ui:field expects a Field but got " + value);
+        }
+        structureHandler.replaceWith(TextModelWriter.render(context, plans.planFor(field), List.of(field),
+                UiDialect.values(context), UiDialect.errors(context)), false);
+    }
+}
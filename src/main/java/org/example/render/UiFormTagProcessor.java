@@ -0,0 +1,44 @@
+package org.example.render;
+
+import org.example.ui.field.Field;
+import org.example.ui.form.Form;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.util.List;
+
+/**
+ * {@code ui:form="${form}"}: rendert alle rijen van het formulier. Gebruikt het plan dat de renderer
+ * voor het huidige screen heeft klaargezet, anders een plan dat enkel voor dit formulier gecompileerd wordt.
+ */
+final class UiFormTagProcessor extends AbstractAttributeTagProcessor {
+
+    private final IconRegistry icons;
+
+    UiFormTagProcessor(String dialectPrefix, IconRegistry icons) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, "form", true, 1000, true);
+        this.icons = icons;
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag, AttributeName attributeName,
+                             String attributeValue, IElementTagStructureHandler structureHandler) {
+        Object value = StandardExpressions.getExpressionParser(context.getConfiguration())
+                .parseExpression(context, attributeValue)
+                .execute(context);
+        if (!(value instanceof Form form)) {
+            throw new IllegalArgumentException("ui:form expects a Form but got " + value);
+        }
+        List<Field> fields = form.getFields();
+        RenderPlan plan = context.getVariable(UiDialect.PLAN_VARIABLE) instanceof RenderPlan p && p.matches(form)
+                ? p
+                : RenderPlanCompiler.compile(form, icons);
+        structureHandler.replaceWith(TextModelWriter.render(context, plan, fields, UiDialect.values(context),
+                UiDialect.errors(context)), false);
+    }
+}
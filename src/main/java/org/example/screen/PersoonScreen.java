@@ -14,14 +14,19 @@ public class PersoonScreen extends AbstractScreen<PersoonDto> {
     @Override
     public Form createForm(FormBuilder formBuilder, PersoonDto persoon) {
         Form form = formBuilder.create(3);
-        formBuilder.add(persoon.naam);
-        formBuilder.add(persoon.voornaam);
+        formBuilder.add(PersoonDto.NAAM);
+        formBuilder.add(PersoonDto.VOORNAAM);
         formBuilder.newLine();
-        formBuilder.add(persoon.geboorteDatum);
-        formBuilder.add(persoon.leeftijd);
-        formBuilder.add(persoon.geslacht);
+        formBuilder.add(PersoonDto.GEBOORTE_DATUM);
+        formBuilder.add(PersoonDto.LEEFTIJD);
+        formBuilder.add(PersoonDto.GESLACHT);
         formBuilder.newLine();
-        formBuilder.add(persoon.postcode);
+        formBuilder.add(PersoonDto.POSTCODE);
         return form;
     }
+
+    @Override
+    public boolean isLayoutStatic() {
+        return true;
+    }
 }
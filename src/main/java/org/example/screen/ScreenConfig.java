@@ -0,0 +1,16 @@
+package org.example.screen;
+
+import org.example.dto.PersoonDto;
+import org.example.ui.ScreenRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ScreenConfig {
+
+    @Bean
+    public ScreenRegistry screenRegistry() {
+        return new ScreenRegistry()
+                .register("persoon", () -> new PersoonScreen(new PersoonDto()));
+    }
+}
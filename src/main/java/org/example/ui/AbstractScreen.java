@@ -1,9 +1,10 @@
 package org.example.ui;
 
+import org.example.ui.field.FieldValues;
 import org.example.ui.form.Form;
 import org.example.ui.form.FormBuilder;
 
-public abstract class AbstractScreen<T> implements Screen {
+public abstract class AbstractScreen<T extends FieldValues> implements Screen {
 
     private final String title;
     protected final T dto;
@@ -23,4 +24,10 @@ public abstract class AbstractScreen<T> implements Screen {
     }
 
     public abstract Form createForm(FormBuilder formBuilder, T dto);
+
+    // true when createForm only depends on the screen class and not on the dto; the renderer then
+    // builds the form once, freezes it and shares it across requests
+    public boolean isLayoutStatic() {
+        return false;
+    }
 }
@@ -0,0 +1,29 @@
+package org.example.ui;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Korte SHA-256 fingerprint van een inhoud, voor versies en ETags.
+ */
+public final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    // first 5 bytes of the SHA-256 digest as 10 hex characters
+    public static String of(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 5);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static String of(String content) {
+        return of(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
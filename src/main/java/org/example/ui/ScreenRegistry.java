@@ -0,0 +1,46 @@
+package org.example.ui;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Alle screens van de applicatie op naam, elk met een factory voor een screen met een verse DTO.
+ */
+public class ScreenRegistry {
+    public static final String FRAGMENT_PATH = "/screens/";
+
+    private final Map<String, Supplier<? extends AbstractScreen<?>>> screens = new LinkedHashMap<>();
+    private final Map<Class<?>, String> names = new HashMap<>();
+
+    public ScreenRegistry register(String name, Supplier<? extends AbstractScreen<?>> factory) {
+        if (screens.putIfAbsent(name, factory) != null) {
+            throw new IllegalArgumentException("Screen already registered: " + name);
+        }
+        names.putIfAbsent(factory.get().getClass(), name);
+        return this;
+    }
+
+    public AbstractScreen<?> create(String name) {
+        Supplier<? extends AbstractScreen<?>> factory = screens.get(name);
+        if (factory == null) throw new IllegalArgumentException("Unknown screen: " + name);
+        return factory.get();
+    }
+
+    // base URL of the fragment endpoints of a screen class, e.g. /screens/persoon; null when it is not registered
+    public String fragmentUrl(Class<?> screenType) {
+        String name = names.get(screenType);
+        return name == null ? null : FRAGMENT_PATH + name;
+    }
+
+    public boolean contains(String name) {
+        return screens.containsKey(name);
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(screens.keySet());
+    }
+}
@@ -1,19 +1,17 @@
 package org.example.ui.field;
 
 public class DateField extends Field {
-    private String value;
 
     public DateField(String name, String label) {
         super(name, label);
     }
 
-    public String getValue() {
-        return value;
+    public String getValue(FieldValues values) {
+        return (String) read(values, 0);
     }
 
-    public DateField value(String value) {
-        this.value = value;
-        return this;
+    public void setValue(FieldValues values, String value) {
+        write(values, 0, value);
     }
 
     @Override
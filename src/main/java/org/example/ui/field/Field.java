@@ -1,9 +1,13 @@
 package org.example.ui.field;
 
+/**
+ * Definitie van één veld; de waarde zelf zit in een {@link FieldValues}.
+ */
 public abstract class Field {
     protected final String name;
     protected final String label;
     private String icon; // optional icon key (e.g. "calendar", "user")
+    private int slot = -1; // first value slot, assigned by FieldSchema
 
     protected Field(String name, String label) {
         this.name = name;
@@ -22,6 +26,7 @@ public abstract class Field {
 
     // optional icon support
     public Field icon(String icon) {
+        checkMutable();
         this.icon = icon;
         return this;
     }
@@ -29,4 +34,48 @@ public abstract class Field {
     public String getIcon() {
         return icon;
     }
+
+    // index of the first value slot, -1 while the field is not part of a schema
+    public int getSlot() {
+        return slot;
+    }
+
+    // number of value slots the field needs
+    public int getSlotCount() {
+        return 1;
+    }
+
+    public boolean isSealed() {
+        return slot >= 0;
+    }
+
+    protected void checkMutable() {
+        if (isSealed()) {
+            throw new IllegalStateException("Field '" + name + "' is part of a schema and can no longer be changed");
+        }
+    }
+
+    // value in the given slot of this field; null when there are no values or the field is not part of a schema
+    protected Object read(FieldValues values, int offset) {
+        return values == null || slot < 0 ? null : values.get(slot + offset);
+    }
+
+    protected void write(FieldValues values, int offset, Object value) {
+        if (slot < 0) {
+            throw new IllegalStateException("Field '" + name + "' is not part of a schema and has no value slot;"
+                    + " add it to FieldSchema.of(...) or use FormBuilder#newValues()");
+        }
+        values.set(slot + offset, value);
+    }
+
+    // initial values of the field's slots in a fresh value array
+    void writeDefaults(Object[] slots) {
+    }
+
+    void attach(int slot) {
+        if (this.slot >= 0) {
+            throw new IllegalStateException("Field '" + name + "' is already part of a schema");
+        }
+        this.slot = slot;
+    }
 }
@@ -0,0 +1,59 @@
+package org.example.ui.field;
+
+import java.util.Arrays;
+
+/**
+ * Foutmeldingen per veld van één submit; de arrays worden pas bij de eerste fout aangemaakt.
+ */
+public final class FieldErrors {
+    private Field[] fields;
+    private String[] messages;
+    private int size;
+
+    public void add(Field field, String message) {
+        if (fields == null) {
+            fields = new Field[4];
+            messages = new String[4];
+        } else if (size == fields.length) {
+            fields = Arrays.copyOf(fields, size * 2);
+            messages = Arrays.copyOf(messages, size * 2);
+        }
+        fields[size] = field;
+        messages[size] = message;
+        size++;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Field getField(int index) {
+        checkIndex(index);
+        return fields[index];
+    }
+
+    public String getMessage(int index) {
+        checkIndex(index);
+        return messages[index];
+    }
+
+    public boolean hasError(Field field) {
+        return messageFor(field) != null;
+    }
+
+    // first message for the field, null when it has none
+    public String messageFor(Field field) {
+        for (int i = 0; i < size; i++) {
+            if (fields[i] == field) return messages[i];
+        }
+        return null;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+    }
+}
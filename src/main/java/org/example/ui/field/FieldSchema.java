@@ -0,0 +1,77 @@
+package org.example.ui.field;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable beschrijving van de velden van een DTO-klasse; kent elk veld zijn slots toe en verzegelt het.
+ */
+public final class FieldSchema {
+    private final List<Field> fields;
+    private final Map<String, Field> byName;
+    private final Object[] defaults;
+
+    private FieldSchema(Field[] fields) {
+        this.byName = new HashMap<>(fields.length * 2);
+        for (Field field : fields) {
+            if (byName.putIfAbsent(field.getName(), field) != null) {
+                throw new IllegalArgumentException("Duplicate field name in schema: " + field.getName());
+            }
+        }
+        // only seal the fields once the schema as a whole is valid
+        int slots = 0;
+        for (Field field : fields) {
+            field.attach(slots);
+            slots += field.getSlotCount();
+        }
+        this.fields = Collections.unmodifiableList(Arrays.asList(fields.clone()));
+        this.defaults = new Object[slots];
+        for (Field field : fields) {
+            field.writeDefaults(defaults);
+        }
+    }
+
+    /**
+     * Builds the schema and seals the given fields. A field can be part of one schema only.
+     */
+    public static FieldSchema of(Field... fields) {
+        return new FieldSchema(fields);
+    }
+
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    // null when the schema has no field with that name
+    public Field find(String name) {
+        return byName.get(name);
+    }
+
+    public int getSlotCount() {
+        return defaults.length;
+    }
+
+    // a fresh value array with the defaults of the fields (e.g. a preset reference code)
+    public Object[] newSlots() {
+        return defaults.clone();
+    }
+
+    // a standalone value holder, for forms that are not backed by a DTO
+    public FieldValues newValues() {
+        Object[] slots = newSlots();
+        return new FieldValues() {
+            @Override
+            public Object get(int slot) {
+                return slots[slot];
+            }
+
+            @Override
+            public void set(int slot, Object value) {
+                slots[slot] = value;
+            }
+        };
+    }
+}
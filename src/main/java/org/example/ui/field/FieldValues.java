@@ -0,0 +1,11 @@
+package org.example.ui.field;
+
+/**
+ * De waarden van een formulier, in vaste slots per veld van een {@link FieldSchema}.
+ */
+public interface FieldValues {
+
+    Object get(int slot);
+
+    void set(int slot, Object value);
+}
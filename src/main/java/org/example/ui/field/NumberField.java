@@ -1,9 +1,8 @@
 package org.example.ui.field;
 
 public class NumberField extends Field {
-    private Integer min;
-    private Integer max;
-    private Integer value;
+    private final Integer min;
+    private final Integer max;
 
     public NumberField(String name, String label, Integer min, Integer max) {
         super(name, label);
@@ -19,13 +18,12 @@ public class NumberField extends Field {
         return max;
     }
 
-    public Integer getValue() {
-        return value;
+    public Integer getValue(FieldValues values) {
+        return (Integer) read(values, 0);
     }
 
-    public NumberField value(Integer value) {
-        this.value = value;
-        return this;
+    public void setValue(FieldValues values, Integer value) {
+        write(values, 0, value);
     }
 
     @Override
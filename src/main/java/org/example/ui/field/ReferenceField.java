@@ -5,55 +5,81 @@ package org.example.ui.field;
  * Voorbeeld: postcode (code) + gemeentenaam (label) met een lookup endpoint.
  */
 public class ReferenceField extends Field {
-    private String idValue;       // interne id van de reference (optioneel)
-    private String code;          // invoerbare code (bv. postcode)
-    private String displayName;   // getoonde naam (bv. Kortrijk)
-    private String lookupUrl;     // endpoint om via code te zoeken
+    private static final int CODE = 0;
+    private static final int DISPLAY_NAME = 1;
+    private static final int ID_VALUE = 2;
+
+    private final String defaultCode; // code waarmee een nieuwe DTO start (optioneel)
+    private String lookupUrl;         // endpoint om via code te zoeken
+    private String lookupType;        // type van de LookupProvider die code -> naam/id invult (bv. postcode)
 
     public ReferenceField(String name, String label) {
-        super(name, label);
+        this(name, label, null);
     }
 
-    // extra convenience constructor wanneer je meteen een code wil meegeven
-    public ReferenceField(String name, String label, String code) {
+    // extra convenience constructor wanneer elke nieuwe DTO meteen met een code start
+    public ReferenceField(String name, String label, String defaultCode) {
         super(name, label);
-        this.code = code;
+        this.defaultCode = defaultCode;
     }
 
-    public ReferenceField idValue(String id) {
-        this.idValue = id;
+    public ReferenceField lookupUrl(String lookupUrl) {
+        checkMutable();
+        this.lookupUrl = lookupUrl;
         return this;
     }
 
-    public ReferenceField code(String code) {
-        this.code = code;
+    // binds the field to a LookupProvider; name and id are then resolved from the code before rendering
+    public ReferenceField lookup(String lookupType) {
+        checkMutable();
+        this.lookupType = lookupType;
         return this;
     }
 
-    public ReferenceField displayName(String displayName) {
-        this.displayName = displayName;
-        return this;
+    public String getDefaultCode() {
+        return defaultCode;
     }
 
-    public ReferenceField lookupUrl(String lookupUrl) {
-        this.lookupUrl = lookupUrl;
-        return this;
+    public String getLookupUrl() {
+        return lookupUrl;
     }
 
-    public String getIdValue() {
-        return idValue;
+    public String getLookupType() {
+        return lookupType;
     }
 
-    public String getCode() {
-        return code;
+    public String getCode(FieldValues values) {
+        return (String) read(values, CODE);
     }
 
-    public String getDisplayName() {
-        return displayName;
+    public void setCode(FieldValues values, String code) {
+        write(values, CODE, code);
     }
 
-    public String getLookupUrl() {
-        return lookupUrl;
+    public String getDisplayName(FieldValues values) {
+        return (String) read(values, DISPLAY_NAME);
+    }
+
+    public void setDisplayName(FieldValues values, String displayName) {
+        write(values, DISPLAY_NAME, displayName);
+    }
+
+    public String getIdValue(FieldValues values) {
+        return (String) read(values, ID_VALUE);
+    }
+
+    public void setIdValue(FieldValues values, String id) {
+        write(values, ID_VALUE, id);
+    }
+
+    @Override
+    public int getSlotCount() {
+        return 3;
+    }
+
+    @Override
+    void writeDefaults(Object[] slots) {
+        slots[getSlot() + CODE] = defaultCode;
     }
 
     @Override
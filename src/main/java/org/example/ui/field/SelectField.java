@@ -1,34 +1,30 @@
 package org.example.ui.field;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class SelectField extends Field {
-    private final List<Option> options = new ArrayList<>();
-    private String selectedId;
+    private List<Option> options = List.of();
 
     public SelectField(String name, String label) {
         super(name, label);
     }
 
     public SelectField options(List<Option> opts) {
-        this.options.clear();
-        if (opts != null) this.options.addAll(opts);
+        checkMutable();
+        this.options = opts == null ? List.of() : List.copyOf(opts);
         return this;
     }
 
     public List<Option> getOptions() {
-        return Collections.unmodifiableList(options);
+        return options;
     }
 
-    public SelectField selected(String id) {
-        this.selectedId = id;
-        return this;
+    public String getSelectedId(FieldValues values) {
+        return (String) read(values, 0);
     }
 
-    public String getSelectedId() {
-        return selectedId;
+    public void setSelectedId(FieldValues values, String id) {
+        write(values, 0, id);
     }
 
     @Override
@@ -2,7 +2,6 @@ package org.example.ui.field;
 
 public class TextField extends Field {
     private Integer maxLength;
-    private String value;
 
     public TextField(String name, String label) {
         super(name, label);
@@ -13,17 +12,17 @@ public class TextField extends Field {
     }
 
     public TextField maxLength(Integer maxLength) {
+        checkMutable();
         this.maxLength = maxLength;
         return this;
     }
 
-    public String getValue() {
-        return value;
+    public String getValue(FieldValues values) {
+        return (String) read(values, 0);
     }
 
-    public TextField value(String value) {
-        this.value = value;
-        return this;
+    public void setValue(FieldValues values, String value) {
+        write(values, 0, value);
     }
 
     @Override
@@ -3,26 +3,88 @@ package org.example.ui.form;
 import org.example.ui.field.Field;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Layout van een scherm: velden in rijen en secties; {@link #freeze()} geeft een immutable snapshot.
+ */
 public class Form {
     private final int columns;
     // rows of fields; each row is a list of Field
-    private final List<List<Field>> rows = new ArrayList<>();
+    private final List<List<Field>> rows;
+    // named sections, each starting at a row index
+    private final List<SectionStart> sectionStarts;
+
+    // precomputed views, only set on a frozen form
+    private final boolean frozen;
+    private final List<Field> fields;
+    private final List<Row> rowInfo;
+    private final Map<String, Integer> nameIndex;
+    private final List<Section> sections;
+    private final List<Field> initialFields;
 
     public Form(int columns) {
         this.columns = columns;
+        this.rows = new ArrayList<>();
         // start with an initial row
         rows.add(new ArrayList<>());
+        this.sectionStarts = new ArrayList<>();
+        this.frozen = false;
+        this.fields = null;
+        this.rowInfo = null;
+        this.nameIndex = null;
+        this.sections = null;
+        this.initialFields = null;
+    }
+
+    // frozen snapshot of the given rows
+    private Form(int columns, List<List<Field>> source, List<SectionStart> starts) {
+        this.columns = columns;
+        this.frozen = true;
+        this.sectionStarts = List.copyOf(starts);
+        List<List<Field>> frozenRows = new ArrayList<>(source.size());
+        List<Field> flat = new ArrayList<>();
+        for (List<Field> row : source) {
+            List<Field> copy = List.copyOf(row);
+            frozenRows.add(copy);
+            flat.addAll(copy);
+        }
+        this.rows = Collections.unmodifiableList(frozenRows);
+        this.rowInfo = rowInfo(frozenRows, columns);
+        this.fields = Collections.unmodifiableList(Arrays.asList(flat.toArray(new Field[0])));
+        Map<String, Integer> index = new HashMap<>(flat.size() * 2);
+        for (int i = 0; i < flat.size(); i++) {
+            if (index.putIfAbsent(flat.get(i).getName(), i) != null) {
+                throw new IllegalStateException("Field '" + flat.get(i).getName() + "' occurs more than once in the form");
+            }
+        }
+        this.nameIndex = index;
+        this.sections = sections(rowInfo, sectionStarts);
+        this.initialFields = initialFields(sections, fields);
     }
 
     public int getColumns() {
         return columns;
     }
 
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @return an immutable, thread-safe snapshot of this form; a frozen form returns itself
+     */
+    public Form freeze() {
+        return frozen ? this : new Form(columns, rows, sectionStarts);
+    }
+
     // add field to the current (last) row
     public void add(Field field) {
+        checkNotFrozen();
         if (rows.isEmpty()) {
             rows.add(new ArrayList<>());
         }
@@ -31,14 +93,30 @@ public class Form {
 
     // end the current row and start a new empty row
     public void newLine() {
+        checkNotFrozen();
         // only add a new row if the last row is not empty
         if (rows.isEmpty() || !rows.get(rows.size() - 1).isEmpty()) {
             rows.add(new ArrayList<>());
         }
     }
 
+    /**
+     * Starts a named section on a new row; the following rows belong to it until the next section.
+     *
+     * @param deferred true to render the section as a placeholder that loads its fields when it becomes visible
+     */
+    public void section(String name, String title, boolean deferred) {
+        checkNotFrozen();
+        for (SectionStart start : sectionStarts) {
+            if (start.name().equals(name)) throw new IllegalArgumentException("Section already exists: " + name);
+        }
+        newLine();
+        sectionStarts.add(new SectionStart(name, title, deferred, rows.size() - 1));
+    }
+
     // flattened view maintained for backward compatibility
     public List<Field> getFields() {
+        if (frozen) return fields;
         List<Field> all = new ArrayList<>();
         for (List<Field> row : rows) {
             all.addAll(row);
@@ -48,6 +126,7 @@ public class Form {
 
     // new API: access rows directly
     public List<List<Field>> getRows() {
+        if (frozen) return rows;
         // return unmodifiable deep view
         List<List<Field>> unmodifiable = new ArrayList<>();
         for (List<Field> row : rows) {
@@ -55,4 +134,107 @@ public class Form {
         }
         return Collections.unmodifiableList(unmodifiable);
     }
+
+    // rows with their position in the flattened field list and their column count
+    public List<Row> getRowInfo() {
+        return frozen ? rowInfo : rowInfo(getRows(), columns);
+    }
+
+    // the rows grouped per section; a form without sections has one unnamed section with all rows
+    public List<Section> getSections() {
+        return frozen ? sections : sections(getRowInfo(), sectionStarts);
+    }
+
+    // null when the form has no section with that name
+    public Section findSection(String name) {
+        for (Section section : getSections()) {
+            if (name.equals(section.name())) return section;
+        }
+        return null;
+    }
+
+    // the fields rendered with the page itself, i.e. all fields outside deferred sections
+    public List<Field> getInitialFields() {
+        return frozen ? initialFields : initialFields(getSections(), getFields());
+    }
+
+    // position of the field in getFields(), -1 when the form has no field with that name
+    public int indexOf(String name) {
+        if (frozen) {
+            Integer index = nameIndex.get(name);
+            return index == null ? -1 : index;
+        }
+        List<Field> all = getFields();
+        for (int i = 0; i < all.size(); i++) {
+            if (all.get(i).getName().equals(name)) return i;
+        }
+        return -1;
+    }
+
+    // null when the form has no field with that name
+    public Field find(String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : getFields().get(index);
+    }
+
+    private static List<Row> rowInfo(List<List<Field>> rows, int columns) {
+        List<Row> info = new ArrayList<>(rows.size());
+        int first = 0;
+        for (List<Field> row : rows) {
+            info.add(new Row(info.size(), first, row, columns));
+            first += row.size();
+        }
+        return Collections.unmodifiableList(info);
+    }
+
+    private static List<Section> sections(List<Row> rows, List<SectionStart> starts) {
+        List<Section> result = new ArrayList<>(starts.size() + 1);
+        int firstNamed = starts.isEmpty() ? rows.size() : starts.get(0).row();
+        if (firstNamed > 0 || starts.isEmpty()) {
+            result.add(section(null, null, false, rows.subList(0, firstNamed)));
+        }
+        for (int i = 0; i < starts.size(); i++) {
+            SectionStart start = starts.get(i);
+            int end = i + 1 < starts.size() ? starts.get(i + 1).row() : rows.size();
+            result.add(section(start.name(), start.title(), start.deferred(), rows.subList(start.row(), end)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Section section(String name, String title, boolean deferred, List<Row> rows) {
+        List<Field> fields = new ArrayList<>();
+        rows.forEach(row -> fields.addAll(row.fields()));
+        int firstField = rows.isEmpty() ? 0 : rows.get(0).firstField();
+        return new Section(name, title, deferred, List.copyOf(rows), List.copyOf(fields), firstField);
+    }
+
+    private static List<Field> initialFields(List<Section> sections, List<Field> all) {
+        if (sections.stream().noneMatch(Section::deferred)) return all;
+        List<Field> initial = new ArrayList<>(all.size());
+        for (Section section : sections) {
+            if (!section.deferred()) initial.addAll(section.fields());
+        }
+        return Collections.unmodifiableList(initial);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) throw new IllegalStateException("A frozen form can not be changed");
+    }
+
+    /**
+     * Eén rij van een formulier: de velden, de index van het eerste veld in {@link #getFields()} en
+     * het aantal kolommen van het grid.
+     */
+    public record Row(int index, int firstField, List<Field> fields, int columns) {
+    }
+
+    /**
+     * Een sectie van een formulier: naam en titel (null voor de rijen vóór de eerste sectie), of ze
+     * uitgesteld geladen wordt, haar rijen en velden, en de index van haar eerste veld in {@link #getFields()}.
+     */
+    public record Section(String name, String title, boolean deferred, List<Row> rows, List<Field> fields, int firstField) {
+    }
+
+    private record SectionStart(String name, String title, boolean deferred, int row) {
+    }
 }
@@ -2,6 +2,8 @@ package org.example.ui.form;
 
 import org.example.ui.field.DateField;
 import org.example.ui.field.Field;
+import org.example.ui.field.FieldSchema;
+import org.example.ui.field.FieldValues;
 import org.example.ui.field.NumberField;
 import org.example.ui.field.SelectField;
 import org.example.ui.field.TextField;
@@ -10,9 +12,11 @@ import org.example.ui.field.ReferenceField;
 public class FormBuilder {
 
     private Form currentForm;
+    private FieldSchema schema;
 
     public Form create(int columns) {
         currentForm = new Form(columns);
+        schema = null;
         return currentForm;
     }
 
@@ -39,6 +43,7 @@ public class FormBuilder {
     // convenience: add field to the current form (fluent)
     public FormBuilder add(Field field) {
         if (currentForm == null) throw new IllegalStateException("No form created. Call create(int) first.");
+        if (schema != null) throw new IllegalStateException("Fields are sealed by newValues(); add them before.");
         currentForm.add(field);
         return this;
     }
@@ -50,10 +55,38 @@ public class FormBuilder {
         return this;
     }
 
+    // starts a named section whose rows are rendered with the page (fluent)
+    public FormBuilder section(String name, String title) {
+        if (currentForm == null) throw new IllegalStateException("No form created. Call create(int) first.");
+        currentForm.section(name, title, false);
+        return this;
+    }
+
+    // starts a named section that is rendered as a placeholder and loaded when it becomes visible (fluent)
+    public FormBuilder deferredSection(String name, String title) {
+        if (currentForm == null) throw new IllegalStateException("No form created. Call create(int) first.");
+        currentForm.section(name, title, true);
+        return this;
+    }
+
     public Form getCurrentForm() {
         return currentForm;
     }
 
+    // frozen snapshot of the current form, see Form#freeze()
+    public Form build() {
+        if (currentForm == null) throw new IllegalStateException("No form created. Call create(int) first.");
+        return currentForm.freeze();
+    }
+
+    // value holder for a form that is not backed by a DTO: the first call puts the fields of the current
+    // form in a schema (which seals them), later calls reuse it
+    public FieldValues newValues() {
+        if (currentForm == null) throw new IllegalStateException("No form created. Call create(int) first.");
+        if (schema == null) schema = FieldSchema.of(currentForm.getFields().toArray(new Field[0]));
+        return schema.newValues();
+    }
+
     // convenience combined methods: create field, add to current form, return the field for further configuration
     public TextField addText(String name, String label) {
         TextField f = new TextField(name, label);
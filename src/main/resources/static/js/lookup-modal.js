@@ -10,10 +10,13 @@
   if (modal)   { modal.hidden   = true; modal.setAttribute('aria-hidden','true'); }
 
   function qAll(sel){ return Array.prototype.slice.call(document.querySelectorAll(sel)); }
+  // htmx only drives the list when it is loaded and the page's search input is wired with hx-get;
+  // the fallback renderer emits a plain input and relies on the JSON fetch below
+  function useHtmx(){ return !!(window.htmx && inputEl && inputEl.getAttribute('hx-get')); }
   function show(el){ el.hidden = false; el.setAttribute('aria-hidden','false'); }
   function hide(el){ el.hidden = true; el.setAttribute('aria-hidden','true'); }
 
-  var currentCtx = null; // { url, wrapper, codeInput, hidden, nameSpan }
+  var currentCtx = null; // { url, wrapper, codeInput, hidden, idCode, nameSpan }
 
   function openModal(ctx){
     currentCtx = ctx;
@@ -21,7 +24,7 @@
     inputEl.value = (ctx.codeInput && ctx.codeInput.value) || '';
     // Wanneer htmx aanwezig is, zorg dat ref wordt meegegeven bij requests
     try {
-      if (window.htmx && ctx.ref) {
+      if (useHtmx() && ctx.ref) {
         var vals = { ref: ctx.ref };
         inputEl.setAttribute('hx-vals', JSON.stringify(vals));
       }
@@ -31,12 +34,13 @@
     setTimeout(function(){ try { inputEl.focus(); inputEl.select(); } catch(e){} }, 0);
     // lock body scroll while modal open
     try { document.body.style.overflow = 'hidden'; } catch(e) {}
-    // Kick initial load
-    fetchAndRender(inputEl.value);
+    // Kick initial load; with htmx the click handler triggers the server-rendered list instead
+    if (!useHtmx()) fetchAndRender(inputEl.value);
   }
 
   function closeModal(){
     if (!overlay || !modal) return;
+    abortPending();
     hide(modal); hide(overlay);
     // restore body scroll
     try { document.body.style.overflow = ''; } catch(e) {}
@@ -44,9 +48,63 @@
     currentCtx = null;
   }
 
-  function renderList(items){
+  // paging state of the JSON lookup: the query shown in the list and the cursor of its next page
+  var listQuery = '';
+  var nextCursor = null;
+  var loadingMore = false;
+  var pending = null; // AbortController of the request that feeds the list
+
+  function abortPending(){
+    if (pending) { try { pending.abort(); } catch(e) {} }
+    pending = null;
+    loadingMore = false;
+  }
+
+  // Per lookupUrl an LRU of query -> { items, next }: a Map keeps insertion order, so the first key
+  // is the least recently used one. An entry without next cursor holds the complete result set.
+  var CACHE_SIZE = 50;
+  var caches = {};
+
+  function cacheFor(url){
+    return caches[url] || (caches[url] = new Map());
+  }
+
+  function cacheGet(url, query){
+    var cache = cacheFor(url);
+    var entry = cache.get(query);
+    if (entry) { cache.delete(query); cache.set(query, entry); }
+    return entry;
+  }
+
+  function cachePut(url, query, entry){
+    var cache = cacheFor(url);
+    cache.delete(query);
+    cache.set(query, entry);
+    if (cache.size > CACHE_SIZE) cache.delete(cache.keys().next().value);
+  }
+
+  // Results for a query without a request: either the query itself is cached, or a shorter prefix
+  // of it is cached completely and the matches are filtered from that set. Returns null when the
+  // server has to be asked (also when filtering leaves nothing, the server decides what an unknown
+  // code looks like).
+  function fromCache(url, query){
+    var exact = cacheGet(url, query);
+    if (exact) return exact;
+    for (var i = query.length - 1; i >= 0; i--) {
+      var wider = cacheFor(url).get(query.slice(0, i));
+      if (!wider || wider.next) continue;
+      var items = wider.items.filter(function(it){ return (it.code || '').indexOf(query) === 0; });
+      if (!items.length) return null;
+      var narrowed = { items: items, next: null };
+      cachePut(url, query, narrowed);
+      return narrowed;
+    }
+    return null;
+  }
+
+  function renderList(items, append){
     if (!listEl) return;
-    listEl.innerHTML = '';
+    if (!append) listEl.innerHTML = '';
     items.forEach(function(it){
       var li = document.createElement('li');
       li.className = 'lookup-item';
@@ -63,19 +121,81 @@
     });
   }
 
+  // one page of the JSON endpoint; the cursor of the following page comes in the X-Next-Cursor header
+  function fetchPage(query, after){
+    var url = currentCtx.url + '?code=' + encodeURIComponent(query);
+    if (after) url += '&after=' + encodeURIComponent(after);
+    abortPending();
+    var controller = window.AbortController ? new AbortController() : null;
+    pending = controller;
+    return fetch(url, controller ? { signal: controller.signal } : undefined).then(function(r){
+      if (!r.ok) return { items: [], next: null, failed: true };
+      return r.json().then(function(list){
+        return { items: Array.isArray(list) ? list : [], next: r.headers.get('X-Next-Cursor') };
+      });
+    });
+  }
+
+  function isAbort(err){ return err && err.name === 'AbortError'; }
+
   function fetchAndRender(query){
     if(!currentCtx || !currentCtx.url) return;
-    var url = currentCtx.url + '?code=' + encodeURIComponent(query || '');
-    fetch(url)
-      .then(function(r){ return r.ok ? r.json() : []; })
-      .then(function(list){ renderList(Array.isArray(list) ? list : []); })
-      .catch(function(){ renderList([]); });
+    var url = currentCtx.url;
+    var q = (query || '').trim();
+    listQuery = q;
+    nextCursor = null;
+    var cached = fromCache(url, q);
+    if (cached) {
+      abortPending();
+      nextCursor = cached.next;
+      renderList(cached.items);
+      return;
+    }
+    fetchPage(q, null)
+      .then(function(page){
+        if (!page.failed) cachePut(url, q, { items: page.items, next: page.next });
+        if (q !== listQuery) return; // a newer query owns the list
+        pending = null;
+        nextCursor = page.next;
+        renderList(page.items);
+      })
+      .catch(function(err){ if (!isAbort(err) && q === listQuery) renderList([]); });
+  }
+
+  function loadMore(){
+    if(!currentCtx || !currentCtx.url || !nextCursor || loadingMore) return;
+    var url = currentCtx.url;
+    var q = listQuery;
+    var request = fetchPage(q, nextCursor);
+    var mine = pending;
+    loadingMore = true;
+    request
+      .then(function(page){
+        if (q !== listQuery) return;
+        // extend the cached entry, once the last page is in it can serve longer prefixes
+        var entry = cacheFor(url).get(q);
+        if (entry) { entry.items = entry.items.concat(page.items); entry.next = page.next; }
+        nextCursor = page.next;
+        renderList(page.items, true);
+      })
+      .catch(function(err){ if (!isAbort(err)) nextCursor = null; })
+      .then(function(){ if (pending === mine) { pending = null; loadingMore = false; } });
   }
 
-  // Debounce only when htmx is NOT present; with htmx we use hx-trigger on the input
+  // Load the next page when the list is scrolled near its end. With htmx the server-rendered
+  // "load more" item (hx-trigger="revealed") takes care of this.
+  if (listEl) {
+    listEl.addEventListener('scroll', function(){
+      if (useHtmx()) return;
+      if (listEl.scrollTop + listEl.clientHeight >= listEl.scrollHeight - 40) loadMore();
+    });
+  }
+
+  // Debounce only when htmx is NOT used; with htmx we use hx-trigger on the input
   var debTimer = null;
-  if (inputEl && !window.htmx) {
+  if (inputEl) {
     inputEl.addEventListener('input', function(){
+      if (useHtmx()) return;
       clearTimeout(debTimer);
       var q = this.value;
       debTimer = setTimeout(function(){ fetchAndRender(q); }, 180);
@@ -90,6 +210,7 @@
     if(currentCtx.codeInput) currentCtx.codeInput.value = code;
     if(currentCtx.nameSpan) currentCtx.nameSpan.textContent = name;
     if(currentCtx.hidden) currentCtx.hidden.value = id;
+    if(currentCtx.idCode) currentCtx.idCode.value = code;
     closeModal();
   }
 
@@ -101,12 +222,13 @@
       var codeInput = wrapper.querySelector('input.input[data-lookup-url]') || wrapper.querySelector('input.input');
       var nameSpan = wrapper.querySelector('.reference-name');
       var hidden = wrapper.querySelector('input[type="hidden"]');
+      var idCode = wrapper.querySelector('input[type="hidden"][name$="_idcode"]');
       var url = btn.getAttribute('data-lookup-url') || (codeInput && codeInput.getAttribute('data-lookup-url'));
       var refName = (btn.getAttribute('data-ref-code') || (codeInput && codeInput.getAttribute('data-ref-code')) || '').trim();
       if(url){
-        openModal({ url: url, wrapper: wrapper, codeInput: codeInput, nameSpan: nameSpan, hidden: hidden, ref: refName });
+        openModal({ url: url, wrapper: wrapper, codeInput: codeInput, nameSpan: nameSpan, hidden: hidden, idCode: idCode, ref: refName });
         // If htmx is present, trigger an initial fetch via htmx (so server renders <li> items)
-        if (window.htmx && inputEl) {
+        if (useHtmx()) {
           try {
             // ensure input carries the current value under name="code"
             if (!inputEl.name) inputEl.name = 'code';
@@ -114,9 +236,6 @@
             // Fire the htmx trigger used in hx-trigger
             window.htmx.trigger(inputEl, 'changed');
           } catch(e) {}
-        } else {
-          // Fallback: manual fetch using JSON endpoint
-          fetchAndRender(inputEl ? inputEl.value : '');
         }
       }
     }
@@ -147,44 +266,49 @@
   if (overlay) overlay.addEventListener('click', closeModal);
   document.addEventListener('keydown', function(e){ if(e.key === 'Escape' && modal && !modal.hidden){ closeModal(); } });
 
-  // Submit handler: build DTO and log to console (demo)
-  var form = document.querySelector('form.form-body');
-  if(form){
-    form.addEventListener('submit', function(ev){
-      ev.preventDefault();
-      var dto = {};
-      var fields = Array.prototype.slice.call(form.querySelectorAll('input, select, textarea'));
-      var handledNames = new Set();
-      fields.forEach(function(el){
-        if(el.type === 'hidden'){
-          var name = el.name; // e.g. "postcode"
-          var wrapper = el.closest('.reference-field');
-          if(wrapper){
-            var codeInput = wrapper.querySelector('input.input[name="'+name+'_code"]')
-                           || wrapper.querySelector('input.input[data-lookup-url]');
-            var nameSpan = wrapper.querySelector('.reference-name');
-            dto[name] = {
-              id: el.value || '',
-              code: codeInput ? codeInput.value : '',
-              name: nameSpan ? nameSpan.textContent : ''
-            };
-            handledNames.add(name);
-            handledNames.add(name + '_code');
-          }
-        }
+  // Deferred form sections: with htmx the placeholder loads itself (hx-trigger="intersect once");
+  // without it we fetch the same fragment once the placeholder becomes visible, i.e. when it scrolls
+  // into view or its <details> is opened, and swap in the section body by its id
+  function loadSection(placeholder){
+    if (placeholder.getAttribute('data-loading')) return;
+    placeholder.setAttribute('data-loading', 'true');
+    fetch(placeholder.getAttribute('hx-get'), { headers: { 'Accept': 'text/html' } })
+      .then(function(r){ if (!r.ok) throw new Error('HTTP ' + r.status); return r.text(); })
+      .then(function(html){
+        var tpl = document.createElement('template');
+        tpl.innerHTML = html;
+        var body = tpl.content.getElementById(placeholder.id);
+        if (!body) throw new Error('Section body missing in response');
+        body.removeAttribute('hx-swap-oob');
+        placeholder.replaceWith(body);
+      })
+      .catch(function(){
+        // leave the placeholder in place; reopening the section tries again
+        placeholder.removeAttribute('data-loading');
+        placeholder.textContent = 'Laden mislukt.';
       });
-      fields.forEach(function(el){
-        if(!el.name || handledNames.has(el.name)) return;
-        if(el.type === 'hidden') return;
-        var val = el.value;
-        dto[el.name] = val;
-      });
-      try {
-        console.log('DTO submitted:', dto);
-        console.log('DTO (json):', JSON.stringify(dto, null, 2));
-      } catch(e) {
-        console.log('DTO submitted (raw):', dto);
+  }
+
+  function initDeferredSections(){
+    if (window.htmx) return;
+    qAll('.form-section-body[hx-get]').forEach(function(placeholder){
+      var details = placeholder.closest('details');
+      if (details) {
+        details.addEventListener('toggle', function(){
+          if (details.open && placeholder.isConnected) loadSection(placeholder);
+        });
       }
+      if (!('IntersectionObserver' in window)) { loadSection(placeholder); return; }
+      var observer = new IntersectionObserver(function(entries){
+        if (entries.some(function(e){ return e.isIntersecting; })) {
+          observer.disconnect();
+          loadSection(placeholder);
+        }
+      });
+      observer.observe(placeholder);
     });
   }
+  // htmx is loaded with defer, so it is only known once the document is parsed
+  if (document.readyState === 'loading') document.addEventListener('DOMContentLoaded', initDeferredSections);
+  else initDeferredSections();
 })();
@@ -0,0 +1,62 @@
+package org.example.controller;
+
+import org.example.render.StaticAssets;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class AssetControllerTest {
+
+    private final StaticAssets assets = new StaticAssets();
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AssetController(assets)).build();
+
+    @Test
+    public void fingerprintedAssetIsImmutableAndGzippedWhenAccepted() throws Exception {
+        String url = assets.url("/css/styles.css");
+
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/css"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(assets.find(url).getContent()));
+    }
+
+    @Test
+    public void etagDiffersPerContentCoding() throws Exception {
+        String url = assets.url("/css/styles.css");
+        String hash = assets.find(url).getHash();
+
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, '"' + hash + "-gz\""));
+        mockMvc.perform(get(url))
+                .andExpect(header().string(HttpHeaders.ETAG, '"' + hash + '"'));
+        // a cache that stored the gzip variant may revalidate it for an identity request
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, '"' + hash + "-gz\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, '"' + hash + '"'));
+    }
+
+    @Test
+    public void unknownFingerprintIsNotFound() throws Exception {
+        mockMvc.perform(get("/assets/0000000000/css/styles.css")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void acceptEncodingHonoursQZero() {
+        assertTrue(AssetController.accepts("gzip, br;q=0.5", "br"));
+        assertFalse(AssetController.accepts("gzip, br;q=0", "br"));
+        assertFalse(AssetController.accepts(null, "gzip"));
+    }
+}
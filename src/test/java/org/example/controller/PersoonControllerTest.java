@@ -1,11 +1,32 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.lookup.LookupMetrics;
+import org.example.lookup.LookupProperties;
+import org.example.lookup.LookupResultCache;
+import org.example.lookup.PostcodeLookupService;
+import org.example.render.RenderPlan;
+import org.example.render.RenderProperties;
+import org.example.render.RenderTrace;
+import org.example.render.ThymeleafRenderer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 public class PersoonControllerTest {
@@ -24,5 +45,204 @@ public class PersoonControllerTest {
                 .andExpect(content().string(containsString("name=\"leeftijd\"")))
                 .andExpect(content().string(containsString("name=\"geslacht\"")));
     }
-}
 
+    @Test
+    public void submittedFormIsBoundAndRenderedAgain() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PersoonController()).build();
+
+        String html = mockMvc.perform(post("/persoon")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("naam", "Jansens")
+                        .param("leeftijd", "44")
+                        .param("geslacht", "V")
+                        .param("postcode_code", "9000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Document doc = Jsoup.parse(html);
+        assertEquals("Jansens", doc.selectFirst("input[name=naam]").attr("value"));
+        assertEquals("44", doc.selectFirst("input[name=leeftijd]").attr("value"));
+        assertEquals("V", doc.selectFirst("select[name=geslacht] option[selected]").attr("value"));
+        assertEquals("9000", doc.selectFirst("input[name=postcode_code]").attr("value"));
+        assertEquals("Gent", doc.selectFirst("#ref-postcode-name").text(), "name is resolved from the submitted code");
+
+        mockMvc.perform(post("/persoon")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("leeftijd", "veertig"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void htmxSubmitOnlyReturnsTheFieldsWhoseErrorStateChanged() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PersoonController()).build();
+
+        String invalid = mockMvc.perform(post("/persoon")
+                        .header(PersoonController.HX_REQUEST_HEADER, "true")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("naam", "Jansens")
+                        .param("leeftijd", "200"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        Document doc = Jsoup.parse(invalid);
+        assertEquals(1, doc.select(".form-item").size());
+        assertEquals("true", doc.selectFirst("#field-leeftijd").attr("hx-swap-oob"));
+        assertEquals("Maximaal 150", doc.selectFirst("#field-leeftijd .field-error").text());
+
+        // the corrected field is sent back without its error
+        String corrected = mockMvc.perform(post("/persoon")
+                        .header(PersoonController.HX_REQUEST_HEADER, "true")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("leeftijd", "42")
+                        .param(RenderPlan.INVALID_PARAMETER, "leeftijd"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        Document fixed = Jsoup.parse(corrected);
+        assertEquals(1, fixed.select(".form-item").size());
+        assertFalse(fixed.selectFirst("#field-leeftijd").hasClass("has-error"));
+        assertEquals("42", fixed.selectFirst("input[name=leeftijd]").val());
+    }
+
+    @Test
+    public void validHtmxSubmitConfirmsTheSave() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PersoonController()).build();
+
+        MockHttpServletResponse response = mockMvc.perform(post("/persoon")
+                        .header(PersoonController.HX_REQUEST_HEADER, "true")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("naam", "Jansens")
+                        .param("leeftijd", "42"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PersoonController.HX_TRIGGER_HEADER, PersoonController.SAVED_EVENT))
+                .andReturn().getResponse();
+        Document doc = Jsoup.parse(response.getContentAsString(StandardCharsets.UTF_8));
+
+        assertTrue(doc.select(".form-item").isEmpty(), "no field changed its error state");
+        assertEquals("true", doc.selectFirst("#form-status").attr("hx-swap-oob"));
+        assertEquals("Gegevens opgeslagen", doc.selectFirst("#form-status").text());
+    }
+
+    @Test
+    public void postcodeLookupAnswersFromTheDataset() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PersoonController()).build();
+
+        mockMvc.perform(get("/persoon/findPostCodeById").param("code", "850"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].code").value("8500"))
+                .andExpect(jsonPath("$[0].name").value("Kortrijk"));
+
+        mockMvc.perform(get("/persoon/findPostCodeById").param("code", "0000"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].code").value("0000"))
+                .andExpect(jsonPath("$[0].name").value(""));
+    }
+
+    @Test
+    public void postcodeLookupIsPagedWithTotalAndCursorHeaders() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PersoonController()).build();
+
+        mockMvc.perform(get("/persoon/findPostCodeById").param("code", "").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(header().exists(PersoonController.TOTAL_COUNT_HEADER))
+                .andExpect(header().exists(PersoonController.NEXT_CURSOR_HEADER));
+
+        mockMvc.perform(get("/persoon/findPostCodeById").param("code", "8500"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(PersoonController.TOTAL_COUNT_HEADER, "1"))
+                .andExpect(header().doesNotExist(PersoonController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void postcodeFragmentEndsWithALoadMoreItem() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PersoonController()).build();
+
+        String html = mockMvc.perform(get("/persoon/lookup/postcodes").param("code", "8").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/html"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        Document doc = Jsoup.parseBodyFragment(html);
+        assertEquals(3, doc.select("li.lookup-item").size());
+        String moreUrl = doc.selectFirst("li.lookup-more").attr("hx-get");
+        assertTrue(moreUrl.contains("after=") && moreUrl.contains("limit=3"), moreUrl);
+
+        mockMvc.perform(get("/persoon/lookup/postcodes").param("code", "8500"))
+                .andExpect(content().string(not(containsString("lookup-more"))));
+    }
+
+    @Test
+    public void lookupsCarryAStrongEtagAndAnswer304() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PersoonController()).build();
+
+        String etag = mockMvc.perform(get("/persoon/findPostCodeById").param("code", "85"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=600")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"), "ETag should be strong");
+
+        mockMvc.perform(get("/persoon/findPostCodeById").param("code", "85").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void unchangedScreenIsAnsweredWithNotModified() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PersoonController()).build();
+
+        var first = mockMvc.perform(get("/persoon"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"), "ETag should be strong");
+
+        mockMvc.perform(get("/persoon").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/persoon").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("name=\"naam\"")));
+    }
+
+    @Test
+    public void serverTimingHeaderIsOptIn() throws Exception {
+        MockMvc plain = MockMvcBuilders.standaloneSetup(new PersoonController()).build();
+        plain.perform(get("/persoon")).andExpect(header().doesNotExist(RenderTrace.HEADER));
+
+        RenderProperties properties = new RenderProperties();
+        properties.setServerTiming(true);
+        ThymeleafRenderer renderer = ThymeleafRenderer.builder().properties(properties).build();
+        MockMvc timed = MockMvcBuilders.standaloneSetup(new PersoonController(renderer, new PostcodeLookupService(),
+                new LookupResultCache(), new LookupMetrics(), new ObjectMapper(), new LookupProperties())).build();
+
+        String serverTiming = timed.perform(get("/persoon"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("name=\"naam\"")))
+                .andReturn().getResponse().getHeader(RenderTrace.HEADER);
+        assertTrue(serverTiming.matches("dto;dur=[0-9.]+, form;dur=[0-9.]+, lookups;dur=[0-9.]+, template;dur=[0-9.]+"), serverTiming);
+    }
+
+    @Test
+    public void identicalLookupsAreServedFromTheResultCache() throws Exception {
+        LookupResultCache lookups = new LookupResultCache();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PersoonController controller = new PersoonController(new ThymeleafRenderer(), new PostcodeLookupService(),
+                lookups, new LookupMetrics(registry), new ObjectMapper(), new LookupProperties());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        String first = mockMvc.perform(get("/persoon/findPostCodeById").param("code", "85"))
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/persoon/findPostCodeById").param("code", "85").param("limit", "20"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, second);
+        assertEquals(1, lookups.getStats().missCount());
+        assertEquals(1, lookups.getStats().hitCount(), "the default limit and limit=20 share one entry");
+        assertEquals(2, registry.get(LookupMetrics.DURATION).tag("lookup", "postcodes.json").timer().count());
+        DistributionSummary results = registry.get(LookupMetrics.RESULTS).tag("lookup", "postcodes.json").summary();
+        assertEquals(2, results.count());
+        assertTrue(results.max() > 20, "the total of matches, not the page size");
+    }
+}
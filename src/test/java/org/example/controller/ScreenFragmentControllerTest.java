@@ -0,0 +1,146 @@
+package org.example.controller;
+
+import org.example.lookup.LookupProperties;
+import org.example.lookup.LookupProviderRegistry;
+import org.example.lookup.PostcodeLookupService;
+import org.example.lookup.ReferenceResolver;
+import org.example.dto.PersoonDto;
+import org.example.render.ThymeleafRenderer;
+import org.example.screen.ScreenConfig;
+import org.example.ui.AbstractScreen;
+import org.example.ui.ScreenRegistry;
+import org.example.ui.field.FieldErrors;
+import org.example.ui.form.Form;
+import org.example.ui.form.FormBuilder;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ScreenFragmentControllerTest {
+
+    private final ScreenRegistry screens = new ScreenConfig().screenRegistry()
+            .register("secties", () -> new SectionedScreen(new PersoonDto()));
+    private final ThymeleafRenderer renderer = renderer(screens);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new ScreenFragmentController(renderer, screens))
+            .build();
+
+    @Test
+    public void singleFieldIsRenderedOnItsOwn() throws Exception {
+        Document doc = Jsoup.parseBodyFragment(mockMvc.perform(get("/screens/persoon/fields/naam"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+        assertEquals(1, doc.select(".form-item").size());
+        assertEquals("true", doc.selectFirst("#field-naam").attr("hx-swap-oob"));
+        assertNull(doc.selectFirst(".form-row"));
+    }
+
+    @Test
+    public void namedFieldsSkipUnknownNames() throws Exception {
+        Document doc = Jsoup.parseBodyFragment(mockMvc.perform(get("/screens/persoon/fields")
+                        .param("name", "naam", "onbekend", "postcode"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+        assertEquals(2, doc.select(".form-item[hx-swap-oob]").size());
+        assertEquals("Kortrijk", doc.selectFirst("#ref-postcode-name").text(), "reference names are resolved");
+    }
+
+    @Test
+    public void postedRowShowsTheSubmittedValuesAndTheirErrors() throws Exception {
+        String html = mockMvc.perform(post("/screens/persoon/rows/1")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("naam", "Jansens")
+                        .param("leeftijd", "200")
+                        .param("geslacht", "V"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Element row = Jsoup.parseBodyFragment(html).selectFirst(".form-row");
+        assertEquals("row-1", row.id());
+        assertEquals("true", row.attr("hx-swap-oob"));
+        assertEquals(3, row.select(".form-item").size());
+        assertEquals("200", row.selectFirst("input[name=leeftijd]").val());
+        assertEquals("Maximaal 150", row.selectFirst("#field-leeftijd .field-error").text());
+        assertNotNull(row.selectFirst("option[value=V][selected]"));
+        assertTrue(html.length() < 3000, "a row is a small fraction of the page");
+    }
+
+    @Test
+    public void unknownScreenFieldOrRowIsNotFound() throws Exception {
+        mockMvc.perform(get("/screens/onbekend/fields/naam")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/screens/persoon/fields/onbekend")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/screens/persoon/rows/9")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void deferredSectionIsAPlaceholderThatLoadsItsRows() throws Exception {
+        Document page = Jsoup.parse(renderer.render(new SectionedScreen(new PersoonDto())));
+        Element placeholder = page.selectFirst("#section-adres-body");
+        assertEquals("/screens/secties/sections/adres", placeholder.attr("hx-get"));
+        assertNull(page.selectFirst("input[name=postcode]"), "deferred fields are not on the page");
+        assertNotNull(page.selectFirst("#section-persoon-body input[name=naam]"), "eager sections are");
+
+        Document section = Jsoup.parseBodyFragment(mockMvc.perform(get("/screens/secties/sections/adres"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+        Element body = section.selectFirst("#section-adres-body");
+        assertEquals("true", body.attr("hx-swap-oob"));
+        assertEquals("Kortrijk", body.selectFirst("#ref-postcode-name").text());
+        assertNull(section.selectFirst("input[name=naam]"));
+
+        mockMvc.perform(get("/screens/secties/sections/onbekend")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void failedSubmitRendersDeferredSectionsUpFront() throws Exception {
+        PersoonDto dto = new PersoonDto();
+        FieldErrors errors = new FieldErrors();
+        errors.add(PersoonDto.NAAM, "Verplicht");
+        StringWriter out = new StringWriter();
+
+        renderer.render(new SectionedScreen(dto), errors, out);
+
+        Document page = Jsoup.parse(out.toString());
+        assertNotNull(page.selectFirst("#section-adres-body input[name=postcode]"));
+        assertFalse(page.selectFirst("#section-adres-body").hasAttr("hx-get"));
+    }
+
+    // resolves postcode names like the application does
+    private static ThymeleafRenderer renderer(ScreenRegistry screens) {
+        ReferenceResolver references = new ReferenceResolver(
+                new LookupProviderRegistry(List.of(new PostcodeLookupService())), new LookupProperties());
+        return ThymeleafRenderer.builder().references(references).screens(screens).build();
+    }
+
+    private static class SectionedScreen extends AbstractScreen<PersoonDto> {
+        SectionedScreen(PersoonDto dto) {
+            super("Persoon in secties", dto);
+        }
+
+        @Override
+        public Form createForm(FormBuilder formBuilder, PersoonDto persoon) {
+            Form form = formBuilder.create(2);
+            formBuilder.section("persoon", "Persoon");
+            formBuilder.add(PersoonDto.NAAM);
+            formBuilder.add(PersoonDto.VOORNAAM);
+            formBuilder.deferredSection("adres", "Adres");
+            formBuilder.add(PersoonDto.POSTCODE);
+            return form;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.dto;
+
+import org.example.ui.field.FieldErrors;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DtoBinderTest {
+
+    @Test
+    public void bindsPlainAndReferenceParameters() {
+        FieldErrors errors = new FieldErrors();
+        PersoonDto dto = DtoBinder.of(PersoonDto.class).bind(Map.of(
+                "naam", "Jansens",
+                "voornaam", "",
+                "geboorteDatum", "1980-02-29",
+                "leeftijd", " 44 ",
+                "geslacht", "V",
+                "postcode_code", "9000",
+                "postcode", "9000",
+                "postcode_idcode", "9000"), errors);
+
+        assertTrue(errors.isEmpty());
+        assertEquals("Jansens", PersoonDto.NAAM.getValue(dto));
+        assertNull(PersoonDto.VOORNAAM.getValue(dto), "empty input becomes null");
+        assertEquals("1980-02-29", PersoonDto.GEBOORTE_DATUM.getValue(dto));
+        assertEquals(44, PersoonDto.LEEFTIJD.getValue(dto));
+        assertEquals("V", PersoonDto.GESLACHT.getSelectedId(dto));
+        assertEquals("9000", PersoonDto.POSTCODE.getCode(dto));
+        assertEquals("9000", PersoonDto.POSTCODE.getIdValue(dto));
+    }
+
+    @Test
+    public void changedReferenceCodeDropsTheStaleId() {
+        PersoonDto dto = DtoBinder.of(PersoonDto.class).bind(Map.of(
+                "postcode_code", "9000",
+                "postcode", "8500-2",
+                "postcode_idcode", "8500"), new FieldErrors());
+
+        assertEquals("9000", PersoonDto.POSTCODE.getCode(dto));
+        assertNull(PersoonDto.POSTCODE.getIdValue(dto), "the id of the previous code is not kept");
+    }
+
+    @Test
+    public void missingParametersKeepTheDefaults() {
+        PersoonDto dto = DtoBinder.of(PersoonDto.class).bind(Map.of("naam", "Peeters"), new FieldErrors());
+
+        assertEquals("Peeters", PersoonDto.NAAM.getValue(dto));
+        assertEquals("8500", PersoonDto.POSTCODE.getCode(dto));
+    }
+
+    @Test
+    public void unparsableNumberIsReportedAndLeftEmpty() {
+        FieldErrors errors = new FieldErrors();
+        PersoonDto dto = DtoBinder.of(PersoonDto.class).bind(Map.of("leeftijd", "veertig"), errors);
+
+        assertNull(PersoonDto.LEEFTIJD.getValue(dto));
+        assertEquals(1, errors.size());
+        assertSame(PersoonDto.LEEFTIJD, errors.getField(0));
+        assertEquals(DtoBinder.INVALID_NUMBER, errors.messageFor(PersoonDto.LEEFTIJD));
+    }
+
+    @Test
+    public void emptyNumberClearsTheExistingValue() {
+        PersoonDto dto = new PersoonDto();
+        PersoonDto.LEEFTIJD.setValue(dto, 44);
+        FieldErrors errors = new FieldErrors();
+
+        DtoBinder.of(PersoonDto.class).bind(dto, Map.of("leeftijd", "")::get, errors);
+
+        assertTrue(errors.isEmpty());
+        assertNull(PersoonDto.LEEFTIJD.getValue(dto));
+    }
+
+    @Test
+    public void binderIsCreatedOncePerClass() {
+        assertSame(DtoBinder.of(PersoonDto.class), DtoBinder.of(PersoonDto.class));
+        assertSame(PersoonDto.SCHEMA, DtoBinder.of(PersoonDto.class).getSchema());
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.dto;
+
+import org.example.ui.field.FieldErrors;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DtoValidatorTest {
+
+    private final DtoValidator validator = DtoValidator.of(PersoonDto.class);
+
+    @Test
+    public void validDtoHasNoErrors() {
+        PersoonDto dto = new PersoonDto();
+        PersoonDto.NAAM.setValue(dto, "Jansens");
+        PersoonDto.LEEFTIJD.setValue(dto, 150);
+        PersoonDto.GESLACHT.setSelectedId(dto, "M");
+        FieldErrors errors = new FieldErrors();
+
+        assertTrue(validator.validate(dto, errors));
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void everyViolatedConstraintIsReportedInOnePass() {
+        PersoonDto dto = new PersoonDto();
+        PersoonDto.NAAM.setValue(dto, "x".repeat(51));
+        PersoonDto.LEEFTIJD.setValue(dto, -1);
+        PersoonDto.GESLACHT.setSelectedId(dto, "X");
+        FieldErrors errors = new FieldErrors();
+
+        assertFalse(validator.validate(dto, errors));
+        assertEquals(3, errors.size());
+        assertEquals("Maximaal 50 tekens", errors.messageFor(PersoonDto.NAAM));
+        assertEquals("Minimaal 0", errors.messageFor(PersoonDto.LEEFTIJD));
+        assertEquals("Ongeldige keuze", errors.messageFor(PersoonDto.GESLACHT));
+        assertFalse(errors.hasError(PersoonDto.VOORNAAM));
+    }
+
+    @Test
+    public void onlyConstrainedFieldsGetAValidator() {
+        // naam and voornaam maxLength, leeftijd min and max, geslacht options
+        assertEquals(5, validator.getValidatorCount());
+        assertSame(validator, DtoValidator.of(PersoonDto.class));
+    }
+}
@@ -1,9 +1,14 @@
 package org.example.form;
 
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldValues;
+import org.example.ui.field.TextField;
 import org.example.ui.form.Form;
 import org.example.ui.form.FormBuilder;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FormBuilderTest {
@@ -43,4 +48,121 @@ public class FormBuilderTest {
         assertEquals(2, form.getRows().get(0).size());
         assertEquals(1, form.getRows().get(1).size());
     }
+
+    @Test
+    public void frozenFormPrecomputesItsViews() {
+        FormBuilder builder = new FormBuilder();
+        builder.create(3);
+        builder.addText("a", "A");
+        builder.addText("b", "B");
+        builder.newLine();
+        builder.addText("c", "C");
+        Form form = builder.build();
+
+        assertTrue(form.isFrozen());
+        assertSame(form, form.freeze());
+        assertSame(form.getFields(), form.getFields(), "no copy per call");
+        assertSame(form.getRows(), form.getRows());
+        assertEquals(2, form.indexOf("c"));
+        assertEquals(-1, form.indexOf("x"));
+        assertSame(form.getFields().get(1), form.find("b"));
+
+        Form.Row second = form.getRowInfo().get(1);
+        assertEquals(2, second.firstField());
+        assertEquals(1, second.fields().size());
+        assertEquals(3, second.columns());
+    }
+
+    @Test
+    public void frozenFormCanNotBeChanged() {
+        FormBuilder builder = new FormBuilder();
+        builder.create(2);
+        builder.addText("a", "A");
+        Form form = builder.build();
+
+        assertThrows(IllegalStateException.class, () -> form.add(new TextField("b", "B")));
+        assertThrows(IllegalStateException.class, form::newLine);
+        assertThrows(UnsupportedOperationException.class, () -> form.getRows().get(0).clear());
+
+        // the builder's form stays editable and does not affect the snapshot
+        builder.addText("b", "B");
+        assertEquals(1, form.getFields().size());
+        assertEquals(2, builder.getCurrentForm().getFields().size());
+    }
+
+    @Test
+    public void duplicateNamesAreRejectedWhenFreezing() {
+        FormBuilder builder = new FormBuilder();
+        builder.create(2);
+        builder.addText("a", "A");
+        builder.addText("a", "A again");
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    public void sectionsGroupTheFollowingRows() {
+        FormBuilder builder = new FormBuilder();
+        builder.create(2);
+        builder.addText("a", "A");
+        builder.section("adres", "Adres");
+        builder.addText("b", "B");
+        builder.addText("c", "C");
+        builder.deferredSection("extra", "Extra");
+        builder.addText("d", "D");
+        Form form = builder.build();
+
+        List<Form.Section> sections = form.getSections();
+        assertEquals(3, sections.size());
+        assertNull(sections.get(0).name(), "rows before the first section");
+        assertEquals(List.of("b", "c"), sections.get(1).fields().stream().map(Field::getName).toList());
+        assertEquals(1, sections.get(1).firstField());
+        assertTrue(form.findSection("extra").deferred());
+        assertEquals(3, form.findSection("extra").firstField());
+        assertNull(form.findSection("onbekend"));
+        assertEquals(List.of("a", "b", "c"), form.getInitialFields().stream().map(Field::getName).toList());
+    }
+
+    @Test
+    public void formWithoutSectionsHasOneUnnamedSection() {
+        FormBuilder builder = new FormBuilder();
+        builder.create(2);
+        builder.addText("a", "A");
+        builder.newLine();
+        builder.addText("b", "B");
+        Form form = builder.build();
+
+        assertEquals(1, form.getSections().size());
+        assertEquals(2, form.getSections().get(0).rows().size());
+        assertSame(form.getFields(), form.getInitialFields());
+        assertThrows(IllegalArgumentException.class, () -> {
+            Form editable = new Form(2);
+            editable.section("x", "X", false);
+            editable.section("x", "X again", true);
+        });
+    }
+
+    @Test
+    public void adHocFormGetsValuesFromTheBuilder() {
+        FormBuilder builder = new FormBuilder();
+        builder.create(2);
+        TextField zoek = builder.addText("zoek", "Zoek");
+        assertThrows(IllegalStateException.class, () -> zoek.setValue(new FieldValues() {
+            @Override
+            public Object get(int slot) {
+                return null;
+            }
+
+            @Override
+            public void set(int slot, Object value) {
+            }
+        }, "x"), "a field outside a schema has no slot");
+
+        FieldValues values = builder.newValues();
+        zoek.setValue(values, "Jansens");
+
+        assertEquals("Jansens", zoek.getValue(values));
+        assertNull(zoek.getValue(builder.newValues()), "every call returns fresh values");
+        assertThrows(IllegalStateException.class, () -> builder.addText("later", "Later"));
+    }
 }
@@ -0,0 +1,72 @@
+package org.example.lookup;
+
+import org.example.dto.PostcodeDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostcodeLookupServiceTest {
+
+    private final PostcodeLookupService service = new PostcodeLookupService();
+
+    @Test
+    public void prefixQueryReturnsTheMatchingRangeInOrder() {
+        List<PostcodeDto> found = service.findByPrefix("850");
+
+        assertFalse(found.isEmpty());
+        assertTrue(found.stream().allMatch(p -> p.getCode().startsWith("850")));
+        assertEquals("8500", found.get(0).getCode());
+        assertEquals("Kortrijk", found.get(0).getName());
+        for (int i = 1; i < found.size(); i++) {
+            assertTrue(found.get(i - 1).getCode().compareTo(found.get(i).getCode()) <= 0, "results are sorted by code");
+        }
+        long expected = service.findByPrefix("").stream().filter(p -> p.getCode().startsWith("850")).count();
+        assertEquals(expected, found.size());
+    }
+
+    @Test
+    public void sharedPostcodesGetUniqueIds() {
+        List<PostcodeDto> found = service.findByPrefix("8501");
+
+        assertEquals(List.of("8501-1", "8501-2"), found.stream().map(PostcodeDto::getId).toList());
+        assertEquals("8500", service.findByPrefix("8500").get(0).getId());
+    }
+
+    @Test
+    public void blankOrUnknownPrefixes() {
+        assertEquals(service.size(), service.findByPrefix(null).size());
+        assertEquals(service.size(), service.findByPrefix("  ").size());
+        assertTrue(service.findByPrefix("0").isEmpty());
+        assertTrue(service.findByPrefix("99999").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> service.findByPrefix("8").set(0, null));
+    }
+
+    @Test
+    public void pagesFollowTheCursorUntilTheLastPage() {
+        List<PostcodeDto> all = service.findByPrefix("85");
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            LookupPage<PostcodeDto> page = service.find("85", cursor, 4);
+            assertEquals(all.size(), page.getTotal());
+            assertTrue(page.getItems().size() <= 4);
+            page.getItems().forEach(p -> paged.add(p.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(all.stream().map(PostcodeDto::getId).toList(), paged, "every entry exactly once, in order");
+        assertEquals((all.size() + 3) / 4, pages);
+    }
+
+    @Test
+    public void limitIsClamped() {
+        assertEquals(PostcodeLookupService.MAX_LIMIT, service.find("", null, 10_000).getItems().size());
+        assertEquals(1, service.find("", null, 0).getItems().size());
+        assertFalse(service.find("", null, PostcodeLookupService.DEFAULT_LIMIT).getItems().isEmpty());
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.lookup;
+
+import org.example.ui.field.Field;
+import org.example.ui.field.FieldSchema;
+import org.example.ui.field.FieldValues;
+import org.example.ui.field.ReferenceField;
+import org.example.ui.form.Form;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReferenceResolverTest {
+
+    @Test
+    public void resolvesAllFieldsOfOneTypeInASingleCall() {
+        RecordingProvider postcodes = new RecordingProvider("postcode", Map.of("8500", "Kortrijk", "9000", "Gent"));
+        Form form = form(
+                new ReferenceField("woonplaats", "Woonplaats", "8500").lookup("postcode"),
+                new ReferenceField("werkplaats", "Werkplaats", "9000").lookup("postcode"),
+                new ReferenceField("geboorteplaats", "Geboorteplaats", "8500").lookup("postcode"));
+        FieldValues values = values(form);
+
+        resolver(postcodes).resolve(form, values);
+
+        assertEquals(List.of(Set.of("8500", "9000")), postcodes.calls);
+        assertEquals("Kortrijk", reference(form, 0).getDisplayName(values));
+        assertEquals("8500", reference(form, 0).getIdValue(values));
+        assertEquals("Gent", reference(form, 1).getDisplayName(values));
+        assertEquals("Kortrijk", reference(form, 2).getDisplayName(values));
+    }
+
+    @Test
+    public void providersAreCalledInParallel() {
+        // each provider waits for the other one; sequential calls would hit the timeout
+        CountDownLatch both = new CountDownLatch(2);
+        LookupProvider first = new BlockingProvider("postcode", both);
+        LookupProvider second = new BlockingProvider("land", both);
+        Form form = form(
+                new ReferenceField("postcode", "Postcode", "8500").lookup("postcode"),
+                new ReferenceField("land", "Land", "BE").lookup("land"));
+        FieldValues values = values(form);
+
+        resolver(first, second).resolve(form, values);
+
+        assertEquals("postcode 8500", reference(form, 0).getDisplayName(values));
+        assertEquals("land BE", reference(form, 1).getDisplayName(values));
+    }
+
+    @Test
+    public void singleProviderIsCalledOnTheCallingThread() {
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        LookupProvider postcodes = new LookupProvider() {
+            @Override
+            public String getType() {
+                return "postcode";
+            }
+
+            @Override
+            public Map<String, Reference> resolve(Set<String> codes) {
+                threads.add(Thread.currentThread());
+                return Map.of("8500", new Reference("8500", "Kortrijk"));
+            }
+        };
+        Form form = form(new ReferenceField("postcode", "Postcode", "8500").lookup("postcode"));
+        FieldValues values = values(form);
+
+        resolver(postcodes).resolve(form, values);
+
+        assertEquals(List.of(Thread.currentThread()), threads);
+        assertEquals("Kortrijk", reference(form, 0).getDisplayName(values));
+    }
+
+    @Test
+    public void failingProviderLeavesItsFieldsUnchanged() {
+        LookupProvider broken = new LookupProvider() {
+            @Override
+            public String getType() {
+                return "land";
+            }
+
+            @Override
+            public Map<String, Reference> resolve(Set<String> codes) {
+                throw new IllegalStateException("backend down");
+            }
+        };
+        RecordingProvider postcodes = new RecordingProvider("postcode", Map.of("8500", "Kortrijk"));
+        Form form = form(
+                new ReferenceField("land", "Land", "BE").lookup("land"),
+                new ReferenceField("postcode", "Postcode", "8500").lookup("postcode"));
+        FieldValues values = values(form);
+
+        resolver(broken, postcodes).resolve(form, values);
+
+        assertNull(reference(form, 0).getDisplayName(values));
+        assertEquals("Kortrijk", reference(form, 1).getDisplayName(values));
+    }
+
+    @Test
+    public void presetNamesAndFieldsWithoutCodeOrTypeAreSkipped() {
+        RecordingProvider postcodes = new RecordingProvider("postcode", Map.of("8500", "Kortrijk"));
+        Form form = form(
+                new ReferenceField("preset", "Preset", "8500").lookup("postcode"),
+                new ReferenceField("leeg", "Leeg").lookup("postcode"),
+                new ReferenceField("vrij", "Vrij", "8500"));
+        FieldValues values = values(form);
+        reference(form, 0).setIdValue(values, "x");
+        reference(form, 0).setDisplayName(values, "Eigen naam");
+
+        resolver(postcodes).resolve(form, values);
+
+        assertTrue(postcodes.calls.isEmpty());
+        assertEquals("Eigen naam", reference(form, 0).getDisplayName(values));
+        assertNull(reference(form, 2).getDisplayName(values));
+    }
+
+    @Test
+    public void postcodeServiceResolvesKnownCodes() {
+        Map<String, LookupProvider.Reference> resolved = new PostcodeLookupService().resolve(Set.of("8500", "0000"));
+
+        assertEquals(new LookupProvider.Reference("8500", "Kortrijk"), resolved.get("8500"));
+        assertFalse(resolved.containsKey("0000"));
+    }
+
+    private static ReferenceResolver resolver(LookupProvider... providers) {
+        LookupProperties properties = new LookupProperties();
+        properties.setResolveTimeout(Duration.ofSeconds(5));
+        return new ReferenceResolver(new LookupProviderRegistry(List.of(providers)), properties);
+    }
+
+    private static Form form(ReferenceField... fields) {
+        Form form = new Form(2);
+        for (ReferenceField field : fields) {
+            form.add(field);
+        }
+        return form;
+    }
+
+    private static FieldValues values(Form form) {
+        return FieldSchema.of(form.getFields().toArray(new Field[0])).newValues();
+    }
+
+    private static ReferenceField reference(Form form, int index) {
+        return (ReferenceField) form.getFields().get(index);
+    }
+
+    private static class RecordingProvider implements LookupProvider {
+        private final String type;
+        private final Map<String, String> names;
+        private final List<Set<String>> calls = new CopyOnWriteArrayList<>();
+
+        RecordingProvider(String type, Map<String, String> names) {
+            this.type = type;
+            this.names = names;
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public Map<String, Reference> resolve(Set<String> codes) {
+            calls.add(Set.copyOf(codes));
+            Map<String, Reference> resolved = new HashMap<>();
+            for (String code : codes) {
+                if (names.containsKey(code)) resolved.put(code, new Reference(code, names.get(code)));
+            }
+            return resolved;
+        }
+    }
+
+    private record BlockingProvider(String type, CountDownLatch both) implements LookupProvider {
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public Map<String, Reference> resolve(Set<String> codes) {
+            both.countDown();
+            try {
+                if (!both.await(2, TimeUnit.SECONDS)) throw new IllegalStateException("providers ran sequentially");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Map<String, Reference> resolved = new HashMap<>();
+            codes.forEach(code -> resolved.put(code, new Reference(code, type + " " + code)));
+            return resolved;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeadFlushingWriterTest {
+
+    @Test
+    public void buffersUntilHeadIsClosedEvenWhenTheTagIsSplitAcrossWrites() throws IOException {
+        StringWriter target = new StringWriter();
+        HeadFlushingWriter writer = new HeadFlushingWriter(target);
+
+        writer.write("<html><head><title>x</title></he");
+        assertFalse(writer.isCommitted());
+        assertEquals("", target.toString());
+
+        writer.write("ad><body>");
+        assertTrue(writer.isCommitted());
+        assertEquals("<html><head><title>x</title></head>", target.toString());
+
+        writer.write("rest");
+        writer.flush();
+        assertEquals("<html><head><title>x</title></head><body>rest", target.toString());
+    }
+
+    @Test
+    public void discardDropsOutputThatWasNotSentYet() throws IOException {
+        StringWriter target = new StringWriter();
+        HeadFlushingWriter writer = new HeadFlushingWriter(target);
+
+        writer.write("<html><head><title>");
+        writer.discard();
+        writer.write("<p>fallback</p>");
+        writer.flush();
+
+        assertEquals("<p>fallback</p>", target.toString());
+    }
+
+    @Test
+    public void bodyIsHeldBackUntilTheFormIsComplete() throws IOException {
+        StringWriter target = new StringWriter();
+        HeadFlushingWriter writer = new HeadFlushingWriter(target);
+
+        writer.write("<HEAD></HEAD><body><form><input");
+        assertTrue(writer.isCommitted());
+        assertEquals("<HEAD></HEAD>", target.toString());
+
+        writer.discard();
+        writer.write("<body><form></FORM><footer>");
+        assertEquals("<HEAD></HEAD><body><form></FORM><footer>", target.toString());
+        assertFalse(writer.canDiscard());
+        assertThrows(IllegalStateException.class, writer::discard);
+    }
+
+    @Test
+    public void partOfAStringIsScannedAndWritten() throws IOException {
+        StringWriter target = new StringWriter();
+        HeadFlushingWriter writer = new HeadFlushingWriter(target);
+
+        writer.write("..<head></head>body..", 2, 17);
+
+        assertTrue(writer.isCommitted());
+        assertEquals(17, writer.getWritten());
+        writer.flush();
+        assertEquals("<head></head>body", target.toString());
+    }
+}
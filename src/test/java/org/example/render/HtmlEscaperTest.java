@@ -0,0 +1,42 @@
+package org.example.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HtmlEscaperTest {
+
+    @Test
+    public void cleanInputIsReturnedUnchanged() {
+        String clean = "Kortrijk 8500";
+        assertSame(clean, HtmlEscaper.escapeText(clean));
+        assertSame(clean, HtmlEscaper.escapeAttribute(clean));
+        assertEquals("", HtmlEscaper.escapeAttribute(null));
+    }
+
+    @Test
+    public void textContextLeavesQuotesAlone() {
+        assertEquals("a &lt;b&gt; &amp; \"c\" 'd'", HtmlEscaper.escapeText("a <b> & \"c\" 'd'"));
+    }
+
+    @Test
+    public void attributeContextEscapesQuotes() {
+        assertEquals("a &lt;b&gt; &amp; &quot;c&quot; &#39;d&#39;", HtmlEscaper.escapeAttribute("a <b> & \"c\" 'd'"));
+    }
+
+    @Test
+    public void appendsIntoStringBuilderAndWriter() throws IOException {
+        StringBuilder sb = new StringBuilder("x=");
+        HtmlEscaper.appendAttribute(sb, "\"1\"&2");
+        assertEquals("x=&quot;1&quot;&amp;2", sb.toString());
+
+        StringWriter out = new StringWriter();
+        HtmlEscaper.writeText(out, "<p>");
+        HtmlEscaper.writeText(out, "plain");
+        HtmlEscaper.writeAttribute(out, "it's");
+        assertEquals("&lt;p&gt;plainit&#39;s", out.toString());
+    }
+}
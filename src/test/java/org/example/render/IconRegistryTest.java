@@ -0,0 +1,50 @@
+package org.example.render;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IconRegistryTest {
+
+    @Test
+    public void spriteContainsOneSymbolPerIcon() {
+        IconRegistry icons = new IconRegistry();
+        Document sprite = Jsoup.parse(icons.getSprite(), "", Parser.xmlParser());
+
+        assertNotNull(sprite.selectFirst("symbol#icon-user"));
+        assertNotNull(sprite.selectFirst("symbol#icon-calendar"));
+        assertNotNull(sprite.selectFirst("symbol#icon-search"));
+        assertNotNull(sprite.selectFirst("symbol#icon-" + IconRegistry.DEFAULT_ICON));
+    }
+
+    @Test
+    public void useMarkupReferencesTheVersionedSprite() {
+        IconRegistry icons = new IconRegistry();
+        Element use = Jsoup.parse(icons.useMarkup("calendar")).selectFirst("svg.icon use");
+
+        assertNotNull(use);
+        assertEquals(icons.getSpriteUrl() + "#icon-calendar", use.attr("href"));
+    }
+
+    @Test
+    public void unknownIconFallsBackToTheDefault() {
+        IconRegistry icons = new IconRegistry();
+        assertTrue(icons.useMarkup("does-not-exist").contains("#icon-" + IconRegistry.DEFAULT_ICON));
+    }
+
+    @Test
+    public void registeringAnIconChangesTheVersion() {
+        IconRegistry icons = new IconRegistry();
+        String before = icons.getVersion();
+
+        icons.register("star", "0 0 24 24", "<path d=\"M12 2l3 7h7l-5.5 4 2 7-6.5-4.5L5.5 20l2-7L2 9h7z\"/>");
+
+        assertNotEquals(before, icons.getVersion());
+        assertTrue(icons.getSprite().contains("id=\"icon-star\""));
+        assertEquals(new IconRegistry().getVersion(), before, "version only depends on the content");
+    }
+}
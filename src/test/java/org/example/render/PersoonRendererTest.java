@@ -1,11 +1,20 @@
 package org.example.render;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.dto.PersoonDto;
 import org.example.screen.PersoonScreen;
+import org.example.ui.AbstractScreen;
+import org.example.ui.ScreenRegistry;
+import org.example.ui.form.Form;
+import org.example.ui.form.FormBuilder;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.Test;
 import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.io.Writer;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -16,7 +25,8 @@ public class PersoonRendererTest {
     public void fallbackProducesRowsAndNamesWhenThymeleafFails() {
         // create a mock engine that throws when process is called to simulate NoClassDefFoundError
         TemplateEngine mockEngine = mock(TemplateEngine.class);
-        when(mockEngine.process(anyString(), any())).thenThrow(new NoClassDefFoundError("ognl/PropertyAccessor"));
+        doThrow(new NoClassDefFoundError("ognl/PropertyAccessor"))
+                .when(mockEngine).process(anyString(), any(IContext.class), any(Writer.class));
 
         ThymeleafRenderer renderer = new ThymeleafRenderer(mockEngine);
 
@@ -48,10 +58,29 @@ public class PersoonRendererTest {
         assertFalse(doc.select("select[name=geslacht]").isEmpty(), "geslacht select should be present");
     }
 
+    @Test
+    public void staticLayoutIsSharedButValuesComeFromEachDto() {
+        ThymeleafRenderer renderer = new ThymeleafRenderer();
+        PersoonDto first = new PersoonDto();
+        PersoonDto.NAAM.setValue(first, "Jansens");
+        PersoonDto second = new PersoonDto();
+        PersoonDto.NAAM.setValue(second, "Peeters");
+
+        Document firstDoc = Jsoup.parse(renderer.render(new PersoonScreen(first)));
+        Document secondDoc = Jsoup.parse(renderer.render(new PersoonScreen(second)));
+
+        assertEquals("Jansens", firstDoc.selectFirst("input[name=naam]").attr("value"));
+        assertEquals("Peeters", secondDoc.selectFirst("input[name=naam]").attr("value"));
+        assertEquals(firstDoc.select(".form-item").size(), secondDoc.select(".form-item").size());
+    }
+
     @Test
     public void whenThymeleafAvailableUseIt() {
         TemplateEngine mockEngine = mock(TemplateEngine.class);
-        when(mockEngine.process(anyString(), any())).thenReturn("<html><body>THYMELEAF</body></html>");
+        doAnswer(inv -> {
+            inv.getArgument(2, Writer.class).write("<html><body>THYMELEAF</body></html>");
+            return null;
+        }).when(mockEngine).process(anyString(), any(IContext.class), any(Writer.class));
 
         ThymeleafRenderer renderer = new ThymeleafRenderer(mockEngine);
 
@@ -62,4 +91,129 @@ public class PersoonRendererTest {
         assertNotNull(html);
         assertTrue(html.contains("THYMELEAF"), "Should use template engine when available");
     }
+
+    @Test
+    public void openCircuitSkipsTheTemplateEngine() throws Exception {
+        TemplateEngine mockEngine = mock(TemplateEngine.class);
+        doThrow(new NoClassDefFoundError("ognl/PropertyAccessor"))
+                .when(mockEngine).process(anyString(), any(IContext.class), any(Writer.class));
+        TemplateCircuitBreaker breaker = new TemplateCircuitBreaker(2, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        ThymeleafRenderer renderer = ThymeleafRenderer.builder().engine(mockEngine).circuitBreaker(breaker).build();
+
+        for (int i = 0; i < 5; i++) {
+            String html = renderer.render(new PersoonScreen(new PersoonDto()));
+            assertFalse(Jsoup.parse(html).select("input[name=naam]").isEmpty(), "fallback should render the form");
+        }
+
+        verify(mockEngine, times(2)).process(anyString(), any(IContext.class), any(Writer.class));
+        assertEquals(TemplateCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(3, breaker.getShortCircuitedCount());
+    }
+
+    @Test
+    public void fallbackLinksTheSharedLookupScriptInsteadOfInlining() {
+        TemplateEngine mockEngine = mock(TemplateEngine.class);
+        doThrow(new NoClassDefFoundError("ognl/PropertyAccessor"))
+                .when(mockEngine).process(anyString(), any(IContext.class), any(Writer.class));
+        StaticAssets assets = new StaticAssets();
+        ThymeleafRenderer renderer = ThymeleafRenderer.builder().engine(mockEngine).assets(assets).build();
+
+        Document doc = Jsoup.parse(renderer.render(new PersoonScreen(new PersoonDto())));
+
+        assertEquals(1, doc.select("script").size());
+        assertEquals(assets.url("/js/lookup-modal.js"), doc.selectFirst("script").attr("src"));
+        assertTrue(doc.selectFirst("script").data().isEmpty(), "no inline script in fallback pages");
+        assertEquals(assets.url("/css/styles.css"), doc.selectFirst("link[rel=stylesheet]").attr("href"));
+    }
+
+    @Test
+    public void renderTimesSizeAndFallbacksAreRecordedPerScreen() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RenderMetrics metrics = new RenderMetrics(registry);
+        TemplateEngine failing = mock(TemplateEngine.class);
+        doThrow(new NoClassDefFoundError("ognl/PropertyAccessor"))
+                .when(failing).process(anyString(), any(IContext.class), any(Writer.class));
+        TemplateCircuitBreaker breaker = new TemplateCircuitBreaker(1, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        String html = ThymeleafRenderer.builder().metrics(metrics).build()
+                .render(new PersoonScreen(new PersoonDto()));
+        ThymeleafRenderer fallback = ThymeleafRenderer.builder().engine(failing).circuitBreaker(breaker).metrics(metrics).build();
+        fallback.render(new PersoonScreen(new PersoonDto()));
+        fallback.render(new PersoonScreen(new PersoonDto()));
+
+        assertEquals(3, registry.get(RenderMetrics.FORM).tag("screen", "PersoonScreen").timer().count());
+        assertEquals(1, registry.get(RenderMetrics.TEMPLATE).tag("screen", "PersoonScreen").timer().count());
+        assertEquals(1, registry.get(RenderMetrics.FALLBACK).tag("exception", "NoClassDefFoundError").counter().count());
+        assertEquals(1, registry.get(RenderMetrics.FALLBACK).tag("exception", RenderMetrics.CIRCUIT_OPEN).counter().count());
+        var output = registry.get(RenderMetrics.OUTPUT).tag("screen", "PersoonScreen").summary();
+        assertEquals(3, output.count());
+        assertEquals(html.length(), output.max(), 0.0, "the template page is the largest one");
+    }
+
+    @Test
+    public void etagFollowsTheFieldValues() {
+        ThymeleafRenderer renderer = new ThymeleafRenderer();
+        PersoonDto dto = new PersoonDto();
+        String etag = renderer.etag(new PersoonScreen(dto));
+
+        assertEquals(etag, renderer.etag(new PersoonScreen(new PersoonDto())));
+        PersoonDto.NAAM.setValue(dto, "Jansens");
+        assertNotEquals(etag, renderer.etag(new PersoonScreen(dto)));
+        PersoonDto.NAAM.setValue(dto, null);
+        assertEquals(etag, renderer.etag(new PersoonScreen(dto)));
+        assertEquals(ThymeleafRenderer.releaseVersion(), ThymeleafRenderer.releaseVersion(),
+                "the version comes from the templates, not from the start of the process");
+
+        RenderProperties dev = new RenderProperties();
+        dev.setDevMode(true);
+        assertNull(ThymeleafRenderer.builder().properties(dev).build()
+                .etag(new PersoonScreen(new PersoonDto())), "templates may change at any time in dev mode");
+    }
+
+    @Test
+    public void failureAfterTheHeadReplacesOnlyTheBody() {
+        TemplateEngine mockEngine = mock(TemplateEngine.class);
+        doAnswer(invocation -> {
+            Writer out = invocation.getArgument(2);
+            out.write("<!doctype html><html><head><title>Template</title></head><body><form><p>half");
+            throw new IllegalStateException("expression failed");
+        }).when(mockEngine).process(anyString(), any(IContext.class), any(Writer.class));
+
+        String html = new ThymeleafRenderer(mockEngine).render(new PersoonScreen(new PersoonDto()));
+
+        assertTrue(html.startsWith("<!doctype html><html><head><title>Template</title></head><body>"), html);
+        assertFalse(html.contains("half"));
+        Document doc = Jsoup.parse(html);
+        assertEquals(1, doc.select("form").size());
+        assertNotNull(doc.selectFirst("input[name=naam]"));
+    }
+
+    @Test
+    public void fallbackShowsDeferredSectionsUpFront() {
+        TemplateEngine mockEngine = mock(TemplateEngine.class);
+        doThrow(new NoClassDefFoundError("ognl/PropertyAccessor"))
+                .when(mockEngine).process(anyString(), any(IContext.class), any(Writer.class));
+        ScreenRegistry screens = new ScreenRegistry().register("secties", () -> new SectionedScreen(new PersoonDto()));
+        ThymeleafRenderer renderer = ThymeleafRenderer.builder().engine(mockEngine).screens(screens).build();
+
+        Document doc = Jsoup.parse(renderer.render(new SectionedScreen(new PersoonDto())));
+
+        assertNotNull(doc.selectFirst("#section-adres-body input[name=postcode]"), "no htmx on the fallback page");
+        assertTrue(doc.select("[hx-get]").isEmpty());
+    }
+
+    private static class SectionedScreen extends AbstractScreen<PersoonDto> {
+        SectionedScreen(PersoonDto dto) {
+            super("Persoon in secties", dto);
+        }
+
+        @Override
+        public Form createForm(FormBuilder formBuilder, PersoonDto persoon) {
+            Form form = formBuilder.create(2);
+            formBuilder.add(PersoonDto.NAAM);
+            formBuilder.deferredSection("adres", "Adres");
+            formBuilder.add(PersoonDto.POSTCODE);
+            return form;
+        }
+    }
 }
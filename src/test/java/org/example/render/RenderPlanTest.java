@@ -0,0 +1,146 @@
+package org.example.render;
+
+import org.example.dto.PersoonDto;
+import org.example.screen.PersoonScreen;
+import org.example.ui.field.FieldErrors;
+import org.example.ui.field.SelectField;
+import org.example.ui.field.TextField;
+import org.example.ui.form.Form;
+import org.example.ui.form.FormBuilder;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderPlanTest {
+
+    @Test
+    public void planIsCompiledOncePerScreenClassAndFilledPerRequest() {
+        RenderPlanCache cache = new RenderPlanCache(new IconRegistry());
+
+        PersoonDto first = new PersoonDto();
+        PersoonDto.NAAM.setValue(first, "Jansens");
+        PersoonDto.GESLACHT.setSelectedId(first, "V");
+        Form firstForm = new PersoonScreen(first).createForm(new FormBuilder(), first);
+
+        PersoonDto second = new PersoonDto();
+        PersoonDto.NAAM.setValue(second, "Peeters");
+        PersoonDto.LEEFTIJD.setValue(second, 42);
+        PersoonDto.POSTCODE.setDisplayName(second, "Kortrijk");
+        Form secondForm = new PersoonScreen(second).createForm(new FormBuilder(), second);
+
+        RenderPlan plan = cache.planFor(PersoonScreen.class, firstForm);
+        assertSame(plan, cache.planFor(PersoonScreen.class, secondForm), "plan should be shared per screen class");
+        assertEquals(1, cache.size());
+
+        Document firstDoc = Jsoup.parse(plan.render(firstForm.getFields(), first));
+        assertEquals("Jansens", firstDoc.selectFirst("input[name=naam]").attr("value"));
+        assertEquals("V", firstDoc.selectFirst("select[name=geslacht] option[selected]").attr("value"));
+        assertFalse(firstDoc.selectFirst("input[name=leeftijd]").hasAttr("value"));
+
+        Document secondDoc = Jsoup.parse(plan.render(secondForm.getFields(), second));
+        assertEquals("Peeters", secondDoc.selectFirst("input[name=naam]").attr("value"));
+        assertEquals("42", secondDoc.selectFirst("input[name=leeftijd]").attr("value"));
+        assertNull(secondDoc.selectFirst("select[name=geslacht] option[selected]"));
+        assertEquals("8500", secondDoc.selectFirst("input[name=postcode_code]").attr("value"));
+        assertEquals("Kortrijk", secondDoc.selectFirst("#ref-postcode-name").text());
+    }
+
+    @Test
+    public void valuesAreEscaped() {
+        PersoonDto dto = new PersoonDto();
+        PersoonDto.NAAM.setValue(dto, "\"><script>alert(1)</script>");
+        Form form = new PersoonScreen(dto).createForm(new FormBuilder(), dto);
+
+        String html = RenderPlanCompiler.compile(form, new IconRegistry()).render(form.getFields(), dto);
+        assertFalse(html.contains("<script>"));
+        assertEquals("\"><script>alert(1)</script>", Jsoup.parse(html).selectFirst("input[name=naam]").attr("value"));
+    }
+
+    @Test
+    public void formWithDifferentStructureGetsItsOwnPlan() {
+        RenderPlanCache cache = new RenderPlanCache(new IconRegistry());
+        FormBuilder builder = new FormBuilder();
+        Form oneRow = builder.create(2);
+        builder.add(PersoonDto.NAAM);
+        builder.add(PersoonDto.VOORNAAM);
+        RenderPlan cached = cache.planFor(PersoonScreen.class, oneRow);
+
+        // same fields, split over two rows
+        FormBuilder otherBuilder = new FormBuilder();
+        Form twoRows = otherBuilder.create(2);
+        otherBuilder.add(PersoonDto.NAAM);
+        otherBuilder.newLine();
+        otherBuilder.add(PersoonDto.VOORNAAM);
+        RenderPlan oneOff = cache.planFor(PersoonScreen.class, twoRows);
+
+        assertNotSame(cached, oneOff);
+        assertTrue(oneOff.matches(twoRows));
+        assertEquals(2, Jsoup.parse(oneOff.render(twoRows.getFields(), new PersoonDto())).select(".form-row").size());
+        assertSame(cached, cache.planFor(PersoonScreen.class, oneRow), "cached plan must stay in place");
+    }
+
+    @Test
+    public void formWithAdHocFieldsIsNeverShared() {
+        RenderPlanCache cache = new RenderPlanCache(new IconRegistry());
+        Form first = selectForm("Eerste optie");
+        Form second = selectForm("Tweede optie");
+
+        assertNotSame(cache.planFor(PersoonScreen.class, first), cache.planFor(PersoonScreen.class, first));
+        String html = cache.planFor(PersoonScreen.class, second).render(second.getFields(), null);
+        assertEquals("Tweede optie", Jsoup.parse(html).selectFirst("option").text(), "options come from this form");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void errorsAreRenderedNextToTheirField() {
+        PersoonDto dto = new PersoonDto();
+        Form form = new PersoonScreen(dto).createForm(new FormBuilder(), dto);
+        FieldErrors errors = new FieldErrors();
+        errors.add(PersoonDto.LEEFTIJD, "Maximaal 150");
+
+        Document doc = Jsoup.parse(RenderPlanCompiler.compile(form, new IconRegistry()).render(form.getFields(), dto, errors));
+
+        Element item = doc.selectFirst("#field-leeftijd");
+        assertTrue(item.hasClass("has-error"));
+        assertEquals("Maximaal 150", item.selectFirst(".field-error").text());
+        assertEquals("leeftijd", item.selectFirst("input[name=" + RenderPlan.INVALID_PARAMETER + "]").val());
+        assertEquals(1, doc.select(".has-error").size());
+    }
+
+    @Test
+    public void outOfBandFieldPlanIsCachedPerField() {
+        RenderPlanCache cache = new RenderPlanCache(new IconRegistry());
+        RenderPlan plan = cache.outOfBandPlanFor(PersoonDto.NAAM);
+        assertSame(plan, cache.outOfBandPlanFor(PersoonDto.NAAM));
+
+        PersoonDto dto = new PersoonDto();
+        PersoonDto.NAAM.setValue(dto, "Jansens");
+        Element item = Jsoup.parse(plan.render(List.of(PersoonDto.NAAM), dto)).selectFirst(".form-item");
+        assertEquals("field-naam", item.id());
+        assertEquals("true", item.attr("hx-swap-oob"));
+        assertEquals("Jansens", item.selectFirst("input[name=naam]").val());
+    }
+
+    @Test
+    public void fieldPlanIsCachedForSchemaFieldsOnly() {
+        RenderPlanCache cache = new RenderPlanCache(new IconRegistry());
+        assertSame(cache.planFor(PersoonDto.NAAM), cache.planFor(PersoonDto.NAAM));
+        assertNotSame(cache.planFor(PersoonDto.NAAM), cache.outOfBandPlanFor(PersoonDto.NAAM));
+
+        TextField adHoc = new TextField("vrij", "Vrij");
+        assertNotSame(cache.planFor(adHoc), cache.planFor(adHoc), "a field outside a schema can still change");
+    }
+
+    // a select whose options are built per request, like a screen with a conditional layout would
+    private static Form selectForm(String option) {
+        FormBuilder builder = new FormBuilder();
+        Form form = builder.create(2);
+        builder.add(new SelectField("keuze", "Keuze").options(List.of(new SelectField.Option("a", option))));
+        return form;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.render;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.dto.PersoonDto;
+import org.example.screen.PersoonScreen;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderTraceTest {
+
+    @Test
+    public void everyRenderPhaseIsRecordedAsAFlightRecorderEvent(@TempDir Path dir) throws Exception {
+        ThymeleafRenderer renderer = new ThymeleafRenderer();
+        Path file = dir.resolve("render.jfr");
+        String html;
+        try (Recording recording = new Recording()) {
+            recording.enable(RenderPhaseEvent.NAME);
+            recording.start();
+            html = renderer.render(new PersoonScreen(new PersoonDto()));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(List.of(RenderTrace.FORM, RenderTrace.LOOKUPS, RenderTrace.TEMPLATE),
+                events.stream().map(e -> e.getString("phase")).toList());
+        for (RecordedEvent event : events) {
+            assertEquals(PersoonScreen.class.getName(), event.getClass("screen").getName());
+            assertEquals(6, event.getInt("fieldCount"));
+        }
+        assertEquals(html.length(), events.get(2).getLong("outputSize"));
+    }
+
+    @Test
+    public void timedTraceListsThePhasesAsServerTiming() {
+        RenderTrace trace = RenderTrace.timed();
+        trace.begin(RenderTrace.DTO, PersoonScreen.class).end(6, 0);
+        trace.begin(RenderTrace.TEMPLATE, PersoonScreen.class).end(6, 1200);
+
+        assertTrue(trace.toHeaderValue().matches("dto;dur=\\d+\\.\\d{2}, template;dur=\\d+\\.\\d{2}"), trace.toHeaderValue());
+        RenderTrace untimed = RenderTrace.untimed();
+        untimed.begin(RenderTrace.DTO, PersoonScreen.class).end(6, 0);
+        assertEquals("", untimed.toHeaderValue());
+    }
+
+    @Test
+    public void etagPhasesAreSummedWithThoseOfThePage() throws Exception {
+        ThymeleafRenderer renderer = new ThymeleafRenderer();
+        PersoonScreen screen = new PersoonScreen(new PersoonDto());
+        RenderTrace trace = RenderTrace.timed();
+
+        renderer.etag(screen, trace);
+        assertTrue(trace.toHeaderValue().matches("form;dur=[0-9.]+, lookups;dur=[0-9.]+"), trace.toHeaderValue());
+        renderer.render(screen, null, trace, new StringWriter());
+        assertTrue(trace.toHeaderValue().matches("form;dur=[0-9.]+, lookups;dur=[0-9.]+, template;dur=[0-9.]+"),
+                trace.toHeaderValue());
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.render;
+
+import org.example.dto.PersoonDto;
+import org.example.screen.PersoonScreen;
+import org.example.ui.ScreenRegistry;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderWarmupTest {
+
+    private final ScreenRegistry screens = new ScreenRegistry()
+            .register("persoon", () -> new PersoonScreen(new PersoonDto()));
+
+    @Test
+    public void warmUpParsesTemplatesIntoTheCacheInProductionMode() {
+        TemplateEngine engine = ThymeleafRenderer.createEngine(new RenderProperties(), new IconRegistry());
+        new ThymeleafRenderer(engine).warmUp(screens);
+
+        var templateCache = engine.getConfiguration().getCacheManager().getTemplateCache();
+        assertNotNull(templateCache);
+        assertTrue(templateCache.keySet().stream().anyMatch(key -> "screen".equals(key.getTemplate())),
+                "screen template should be cached after warm-up");
+        assertTrue(templateCache.keySet().stream().anyMatch(key -> "layout".equals(key.getTemplate())),
+                "layout template should be cached after warm-up");
+    }
+
+    @Test
+    public void devModeDoesNotCacheTemplates() {
+        RenderProperties properties = new RenderProperties();
+        properties.setDevMode(true);
+        TemplateEngine engine = ThymeleafRenderer.createEngine(properties, new IconRegistry());
+        new ThymeleafRenderer(engine).warmUp(screens);
+
+        assertNull(engine.getConfiguration().getCacheManager().getTemplateCache());
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticAssetsTest {
+
+    @Test
+    public void urlContainsTheContentHash() {
+        StaticAssets assets = new StaticAssets();
+        String url = assets.url("/css/styles.css");
+
+        assertTrue(url.matches("/assets/[0-9a-f]{10}/css/styles\\.css"), url);
+        assertSame(assets.find(url), assets.find(new StaticAssets().url("/css/styles.css")), "same content, same URL");
+    }
+
+    @Test
+    public void gzipVariantDecompressesToTheOriginal() throws IOException {
+        StaticAssets assets = new StaticAssets();
+        StaticAssets.Asset asset = assets.find(assets.url("/js/lookup-modal.js"));
+
+        assertNotNull(asset.getGzip());
+        assertTrue(asset.getGzip().length < asset.getContent().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(asset.getGzip()))) {
+            assertArrayEquals(asset.getContent(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void missingFilesAndDevModeKeepThePlainPath() {
+        StaticAssets assets = new StaticAssets(false, List.of("/js/does-not-exist.js"), getClass().getClassLoader());
+        assertEquals("/js/does-not-exist.js", assets.url("/js/does-not-exist.js"));
+        assertEquals("/css/other.css", assets.url("/css/other.css"));
+
+        StaticAssets dev = new StaticAssets(true, StaticAssets.DEFAULT_ASSETS, getClass().getClassLoader());
+        assertEquals("/css/styles.css", dev.url("/css/styles.css"));
+    }
+}
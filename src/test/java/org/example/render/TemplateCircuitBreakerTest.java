@@ -0,0 +1,74 @@
+package org.example.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TemplateCircuitBreaker breaker =
+            new TemplateCircuitBreaker(3, Duration.ofSeconds(1), Duration.ofSeconds(3), now::get);
+    private final RuntimeException failure = new RuntimeException("boom");
+
+    @Test
+    public void opensAfterThresholdAndShortCircuitsUntilBackoffExpires() {
+        assertFalse(breaker.recordFailure(failure));
+        assertFalse(breaker.recordFailure(failure));
+        assertTrue(breaker.recordFailure(failure), "third consecutive failure opens the circuit");
+        assertEquals(TemplateCircuitBreaker.State.OPEN, breaker.getState());
+
+        assertFalse(breaker.allowTemplate());
+        assertFalse(breaker.allowTemplate());
+        assertEquals(2, breaker.getShortCircuitedCount());
+        assertEquals(3, breaker.getTotalFailures());
+        assertEquals("java.lang.RuntimeException: boom", breaker.getLastFailure());
+    }
+
+    @Test
+    public void halfOpenLetsOneProbeThroughAndClosesOnSuccess() {
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertTrue(breaker.allowTemplate(), "probe after backoff");
+        assertEquals(TemplateCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowTemplate(), "only one probe at a time");
+
+        assertTrue(breaker.recordSuccess());
+        assertEquals(TemplateCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getConsecutiveFailures());
+        assertTrue(breaker.allowTemplate());
+    }
+
+    @Test
+    public void failedProbeDoublesBackoffUpToTheMaximum() {
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.allowTemplate());
+        assertTrue(breaker.recordFailure(failure));
+        assertEquals(Duration.ofSeconds(2), breaker.getCurrentBackoff());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertFalse(breaker.allowTemplate(), "still waiting for the doubled backoff");
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(breaker.allowTemplate());
+        breaker.recordFailure(failure);
+        assertEquals(Duration.ofSeconds(3), breaker.getCurrentBackoff(), "capped at the maximum");
+    }
+
+    @Test
+    public void successResetsConsecutiveFailures() {
+        breaker.recordFailure(failure);
+        breaker.recordFailure(failure);
+        assertFalse(breaker.recordSuccess());
+        assertFalse(breaker.recordFailure(failure));
+        assertEquals(TemplateCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) breaker.recordFailure(failure);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.render;
+
+import org.example.dto.PersoonDto;
+import org.example.screen.PersoonScreen;
+import org.example.ui.form.Form;
+import org.example.ui.form.FormBuilder;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UiDialectTest {
+
+    private final TemplateEngine engine = ThymeleafRenderer.createEngine(new RenderProperties(), new IconRegistry());
+
+    @Test
+    public void templateAndFallbackRenderTheSameFormMarkup() {
+        PersoonDto dto = new PersoonDto();
+        PersoonDto.NAAM.setValue(dto, "Jansens");
+        Form form = new PersoonScreen(dto).createForm(new FormBuilder(), dto);
+
+        Context ctx = new Context();
+        ctx.setVariable("form", form);
+        ctx.setVariable(UiDialect.VALUES_VARIABLE, dto);
+        String viaTemplate = engine.process("fragments/fields", Set.of("fields"), ctx);
+        String viaPlan = RenderPlanCompiler.compile(form, new IconRegistry()).render(form.getFields(), dto);
+
+        Element templateRows = Jsoup.parse(viaTemplate).selectFirst(".form-rows");
+        Element planRows = Jsoup.parse(viaPlan).selectFirst(".form-rows");
+        assertNotNull(templateRows);
+        assertEquals(planRows.outerHtml(), templateRows.outerHtml());
+    }
+
+    @Test
+    public void fieldAttributeRendersASingleFormItem() {
+        PersoonDto dto = new PersoonDto();
+        Context ctx = new Context();
+        PersoonDto.LEEFTIJD.setValue(dto, 33);
+        ctx.setVariable("field", PersoonDto.LEEFTIJD);
+        ctx.setVariable(UiDialect.VALUES_VARIABLE, dto);
+
+        Document doc = Jsoup.parse(engine.process("fragments/fields", Set.of("field"), ctx));
+        assertEquals(1, doc.select(".form-item").size());
+        Element input = doc.selectFirst("input[name=leeftijd]");
+        assertEquals("33", input.attr("value"));
+        assertEquals("150", input.attr("max"));
+        assertTrue(doc.select("[ui\\:field]").isEmpty(), "dialect attribute should be removed");
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.ui;
+
+import org.example.dto.PersoonDto;
+import org.example.ui.field.FieldSchema;
+import org.example.ui.field.TextField;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldSchemaTest {
+
+    @Test
+    public void dtoInstancesShareTheSchemaAndOnlyHoldValues() {
+        PersoonDto first = new PersoonDto();
+        PersoonDto second = new PersoonDto();
+        PersoonDto.NAAM.setValue(first, "Jansens");
+
+        assertSame(first.getSchema(), second.getSchema());
+        assertEquals("Jansens", PersoonDto.NAAM.getValue(first));
+        assertNull(PersoonDto.NAAM.getValue(second));
+        assertEquals("8500", PersoonDto.POSTCODE.getCode(second), "default code is copied into every new dto");
+        // five single-value fields plus code, name and id of the reference
+        assertEquals(8, PersoonDto.SCHEMA.getSlotCount());
+        assertSame(PersoonDto.POSTCODE, PersoonDto.SCHEMA.find("postcode"));
+    }
+
+    @Test
+    public void fieldsAreSealedOnceTheyArePartOfASchema() {
+        TextField naam = new TextField("naam", "Naam").maxLength(10);
+        FieldSchema.of(naam);
+
+        assertTrue(naam.isSealed());
+        assertThrows(IllegalStateException.class, () -> naam.maxLength(20));
+        assertThrows(IllegalStateException.class, () -> naam.icon("user"));
+        assertThrows(IllegalStateException.class, () -> FieldSchema.of(naam), "a field belongs to one schema");
+        assertThrows(IllegalArgumentException.class,
+                () -> FieldSchema.of(new TextField("x", "X"), new TextField("x", "X")));
+    }
+
+    @Test
+    public void invalidSchemaLeavesItsFieldsUnsealed() {
+        TextField naam = new TextField("naam", "Naam");
+        TextField voornaam = new TextField("voornaam", "Voornaam");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> FieldSchema.of(naam, voornaam, new TextField("naam", "Naam")));
+
+        assertFalse(naam.isSealed());
+        assertFalse(voornaam.isSealed());
+        assertEquals(2, FieldSchema.of(naam, voornaam).getSlotCount(), "the fields can still join a valid schema");
+    }
+}
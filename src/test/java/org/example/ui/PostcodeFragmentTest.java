@@ -0,0 +1,51 @@
+package org.example.ui;
+
+import org.example.dto.PostcodeDto;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.example.render.ThymeleafRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rendert het {@code postcodes :: items} fragment zoals de htmx-lookup het terugkrijgt.
+ */
+public class PostcodeFragmentTest {
+
+    private final ThymeleafRenderer renderer = new ThymeleafRenderer();
+
+    @Test
+    public void itemsEndWithALoadMoreItemWhenThereIsANextPage() {
+        Document doc = render(List.of(new PostcodeDto("8500", "8500", "Kortrijk"), new PostcodeDto("1420", "1420", "Braine-l'Alleud")),
+                "/persoon/lookup/postcodes?code=&after=8500");
+
+        assertEquals(2, doc.select("li.lookup-item").size());
+        assertNull(doc.selectFirst("ul"), "items are swapped into #lookup-list, no nested list");
+        assertEquals("8500", doc.selectFirst("li.lookup-item").attr("data-code"));
+        assertTrue(doc.select("li.lookup-item").get(1).attr("hx-post").endsWith("&name=Braine-l'Alleud"));
+
+        var more = doc.selectFirst("li.lookup-more");
+        assertNotNull(more);
+        assertEquals("revealed", more.attr("hx-trigger"));
+        assertEquals("/persoon/lookup/postcodes?code=&after=8500", more.attr("hx-get"));
+    }
+
+    @Test
+    public void lastPageHasNoLoadMoreItem() {
+        Document doc = render(List.of(new PostcodeDto("8500", "8500", "Kortrijk")), null);
+        assertNull(doc.selectFirst("li.lookup-more"));
+    }
+
+    private Document render(List<PostcodeDto> list, String moreUrl) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("list", list);
+        variables.put("ref", "postcode");
+        variables.put("moreUrl", moreUrl);
+        return Jsoup.parseBodyFragment(renderer.renderFragment("fragments/postcodes", "items", variables));
+    }
+}